@@ -0,0 +1,76 @@
+package com.servoy.eclipse.docgenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
+
+/**
+ * Parses test sources of the package com.example with resolved bindings, at Java 21.
+ */
+public final class TestSources
+{
+	private TestSources()
+	{
+	}
+
+	/**
+	 * Writes the given sources (by file name) to the com/example folder under the given root folder, parses them in one batch
+	 * and hands each compilation unit, with the path of its file, to the given requestor.
+	 */
+	public static void parse(Path rootDir, Map<String, String> sourceFiles, BiConsumer<String, CompilationUnit> requestor) throws IOException
+	{
+		parse(rootDir, sourceFiles, Map.of(), requestor);
+	}
+
+	/**
+	 * Same as above, with compiler options that are set on top of the Java 21 ones.
+	 */
+	public static void parse(Path rootDir, Map<String, String> sourceFiles, Map<String, String> compilerOptions,
+		BiConsumer<String, CompilationUnit> requestor) throws IOException
+	{
+		Path pkgDir = rootDir.resolve("com").resolve("example");
+		Files.createDirectories(pkgDir);
+		List<String> filePaths = new ArrayList<>();
+		List<String> encodings = new ArrayList<>();
+		for (Map.Entry<String, String> entry : sourceFiles.entrySet())
+		{
+			Path file = pkgDir.resolve(entry.getKey());
+			Files.writeString(file, entry.getValue());
+			filePaths.add(file.toAbsolutePath().toString());
+			encodings.add("UTF-8");
+		}
+
+		ASTParser parser = ASTParser.newParser(AST.JLS21);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setResolveBindings(true);
+		parser.setBindingsRecovery(true);
+		parser.setStatementsRecovery(true);
+		parser.setEnvironment(new String[0], new String[] { rootDir.toAbsolutePath().toString() }, new String[] { "UTF-8" }, true);
+		Map<String, String> options = new HashMap<>();
+		options.put(JavaCore.COMPILER_SOURCE, "21");
+		options.put(JavaCore.COMPILER_COMPLIANCE, "21");
+		options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, "21");
+		options.putAll(compilerOptions);
+		parser.setCompilerOptions(options);
+
+		parser.createASTs(filePaths.toArray(new String[0]), encodings.toArray(new String[0]), new String[0], new FileASTRequestor()
+		{
+			@Override
+			public void acceptAST(String sourceFilePath, CompilationUnit cu)
+			{
+				requestor.accept(sourceFilePath, cu);
+			}
+		}, null);
+	}
+}
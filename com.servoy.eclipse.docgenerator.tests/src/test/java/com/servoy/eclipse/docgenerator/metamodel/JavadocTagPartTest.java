@@ -0,0 +1,196 @@
+package com.servoy.eclipse.docgenerator.metamodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("JavadocTagPart")
+class JavadocTagPartTest
+{
+	/**
+	 * Builds a tag with text parts and child tags, in the given order. Names starting with '@' are child tags, the rest is text.
+	 */
+	private static JavadocTagPart buildTag(String... partNames)
+	{
+		JavadocTagPart tag = new JavadocTagPart(JavadocMetaModel.TEXT_TAG);
+		for (String name : partNames)
+		{
+			if (name.startsWith("@"))
+			{
+				JavadocTagPart child = new JavadocTagPart(name);
+				child.addPart(new JavadocTextPart(name.substring(1)));
+				tag.addPart(child);
+			}
+			else
+			{
+				tag.addPart(new JavadocTextPart(name));
+			}
+		}
+		return tag;
+	}
+
+	@Nested
+	@DisplayName("Tag index")
+	class TagIndex
+	{
+		@Test
+		@DisplayName("finds the same child tags, in the same order, before and after compress")
+		void sameTagsAsLinearScan()
+		{
+			JavadocTagPart tag = buildTag("@link", "text", "@code", "@link", "more", "@see");
+			List<JavadocTagPart> links = new ArrayList<>(tag.findTags("@link"));
+			List<JavadocTagPart> codes = new ArrayList<>(tag.findTags("@code"));
+
+			tag.compress();
+
+			assertEquals(links, tag.findTags("@link"));
+			assertEquals(codes, tag.findTags("@code"));
+			assertEquals(2, tag.findTags("@link").size());
+			assertSame(tag.getParts().get(0), tag.findTags("@link").get(0));
+			assertEquals(1, tag.findTags("@see").size());
+			assertTrue(tag.findTags("@param").isEmpty());
+		}
+
+		@Test
+		@DisplayName("does not let the found tags be changed")
+		void foundTagsAreUnmodifiable()
+		{
+			JavadocTagPart tag = buildTag("@link");
+			tag.compress();
+
+			assertThrows(UnsupportedOperationException.class, () -> tag.findTags("@link").add(new JavadocTagPart("@link")));
+			assertThrows(UnsupportedOperationException.class, () -> tag.findTags("@param").add(new JavadocTagPart("@param")));
+		}
+	}
+
+	@Nested
+	@DisplayName("Merging of text parts")
+	class TextMerging
+	{
+		/**
+		 * The merging done by compress() before the text runs were merged with a single allocation, kept as the reference.
+		 * Returns the rendering of each part, text parts prefixed with "text:" and tags with "tag:".
+		 */
+		private List<String> mergeWithConcatenation(List<IJavadocPart> parts)
+		{
+			IJavadocPart previous = null;
+			List<IJavadocPart> newParts = new ArrayList<IJavadocPart>();
+			for (IJavadocPart part : parts)
+			{
+				if (previous instanceof JavadocTextPart && part instanceof JavadocTextPart)
+				{
+					previous = new JavadocTextPart(((JavadocTextPart)previous).getContent() + ((JavadocTextPart)part).getContent());
+				}
+				else
+				{
+					if (previous != null) newParts.add(previous);
+					previous = part;
+				}
+			}
+			if (previous != null) newParts.add(previous);
+			return describe(newParts);
+		}
+
+		private List<String> describe(List<IJavadocPart> parts)
+		{
+			List<String> result = new ArrayList<>();
+			for (IJavadocPart part : parts)
+			{
+				result.add((part instanceof JavadocTextPart ? "text:" : "tag:") + part.getAsString(false));
+			}
+			return result;
+		}
+
+		@ParameterizedTest
+		@ValueSource(strings = { "", "a", "a|b", "a|b|c", "@link", "@link|@code", "a|@link", "@link|a", "a|b|@link|c|d|e|@code", "@link|a|b|@code|c",
+			"a||b", "|@link|" })
+		@DisplayName("gives the same parts as the concatenation of adjacent texts")
+		void sameAsConcatenation(String layout)
+		{
+			JavadocTagPart tag = buildTag(layout.isEmpty() ? new String[0] : layout.split("\\|", -1));
+			List<String> expected = mergeWithConcatenation(tag.getParts());
+			String rendered = tag.getAsString(false);
+
+			tag.compress();
+
+			assertEquals(expected, describe(tag.getParts()));
+			assertEquals(rendered, tag.getAsString(false));
+		}
+
+		@Test
+		@DisplayName("keeps a lone text part as it is")
+		void keepsLoneTextPart()
+		{
+			JavadocTagPart tag = buildTag("a", "@link", "b");
+			IJavadocPart first = tag.getParts().get(0);
+
+			tag.compress();
+
+			assertSame(first, tag.getParts().get(0));
+		}
+	}
+
+	@Nested
+	@DisplayName("Freezing")
+	class Freezing
+	{
+		@Test
+		@DisplayName("renders the changes of a child tag made before compress")
+		void rendersChildChangesBeforeCompress()
+		{
+			JavadocMetaModel javadoc = new JavadocMetaModel();
+			JavadocTagPart text = new JavadocTagPart(JavadocMetaModel.TEXT_TAG);
+			javadoc.addPart(text);
+			text.addPart(new JavadocTextPart("Sends"));
+
+			assertEquals("Sends", javadoc.getAsString(true));
+			text.addPart(new JavadocTextPart(" a mail."));
+			assertEquals("Sends a mail.", javadoc.getAsString(true));
+			assertEquals("Sends a mail.", javadoc.getAsString(false));
+		}
+
+		@Test
+		@DisplayName("does not let the parts be changed through getParts")
+		void partsAreNotLive()
+		{
+			JavadocTagPart tag = new JavadocTagPart("@param");
+			tag.addPart(new JavadocTextPart("to"));
+
+			assertThrows(UnsupportedOperationException.class, () -> tag.getParts().add(new JavadocTextPart("cc")));
+			tag.compress();
+			assertThrows(UnsupportedOperationException.class, () -> tag.getParts().add(new JavadocTextPart("cc")));
+		}
+
+		@Test
+		@DisplayName("freezes the whole tree on compress, so the cached renderings stay right")
+		void compressFreezesTree()
+		{
+			JavadocMetaModel javadoc = new JavadocMetaModel();
+			JavadocTagPart text = new JavadocTagPart(JavadocMetaModel.TEXT_TAG);
+			javadoc.addPart(text);
+			text.addPart(new JavadocTextPart("Sends a mail."));
+			assertFalse(text.isFrozen());
+
+			javadoc.compress();
+			String rendered = javadoc.getAsString(true);
+
+			assertTrue(javadoc.isFrozen());
+			assertTrue(text.isFrozen(), "compress should freeze the child tags too");
+			assertThrows(IllegalStateException.class, () -> text.addPart(new JavadocTextPart(" Twice.")));
+			assertThrows(IllegalStateException.class, () -> javadoc.addPart(new JavadocTagPart("@deprecated")));
+			assertSame(rendered, javadoc.getAsString(true));
+			assertEquals("Sends a mail.", rendered);
+		}
+	}
+}
@@ -0,0 +1,353 @@
+package com.servoy.eclipse.docgenerator.metamodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.servoy.eclipse.docgenerator.TestSources;
+import com.servoy.eclipse.docgenerator.generators.TypeMapper;
+
+@DisplayName("MetaModelHolder")
+class MetaModelHolderTest
+{
+	private final TypeNamePool typeNames = new TypeNamePool();
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Parses the given sources and returns their types by base binary name, without adding them to a holder.
+	 */
+	private Map<String, TypeMetaModel> parseTypes(Map<String, String> sourceFiles) throws IOException
+	{
+		Map<String, TypeMetaModel> types = new HashMap<>();
+		TestSources.parse(tempDir, sourceFiles, (sourceFilePath, cu) -> cu.accept(new ASTVisitor()
+		{
+			@Override
+			public boolean visit(TypeDeclaration node)
+			{
+				TypeMetaModel tmm = new TypeMetaModel(cu.getPackage().getName().getFullyQualifiedName(), Collections.emptyList(), node,
+					node.isInterface(), typeNames);
+				tmm.setAnnotations(new AnnotationsList());
+				types.put(tmm.getName().getBaseBinaryName(), tmm);
+				return false;
+			}
+		}));
+		return types;
+	}
+
+	/**
+	 * Marks the type as documented, with the given public name if not null. Must be done before the type is added to a holder.
+	 */
+	private static void document(TypeMetaModel tmm, String publicName)
+	{
+		AnnotationMetaModel documented = new AnnotationMetaModel(IPublicStore.ANNOTATION_SERVOY_DOCUMENTED);
+		if (publicName != null) documented.addAttribute("publicName", publicName);
+		tmm.getAnnotations().add(IPublicStore.ANNOTATION_SERVOY_DOCUMENTED, documented);
+	}
+
+	private static List<String> names(Iterable<TypeMetaModel> types)
+	{
+		List<String> result = new ArrayList<>();
+		for (TypeMetaModel type : types)
+		{
+			result.add(type.getName().getShortName());
+		}
+		return result;
+	}
+
+	@Nested
+	@DisplayName("Key order and public name order")
+	class Order
+	{
+		private Map<String, TypeMetaModel> types;
+
+		private void parseGreekTypes() throws IOException
+		{
+			types = parseTypes(Map.of(
+				"Alpha.java", "package com.example; public class Alpha {}",
+				"Beta.java", "package com.example; public class Beta {}",
+				"Gamma.java", "package com.example; public class Gamma {}",
+				"Delta.java", "package com.example; public class Delta {}",
+				"Epsilon.java", "package com.example; public class Epsilon {}"));
+			// public names that sort differently than the keys, Delta and Gamma share the same public name
+			document(types.get("com.example.Alpha"), "Zulu");
+			document(types.get("com.example.Beta"), "Alpha");
+			document(types.get("com.example.Gamma"), null);
+			document(types.get("com.example.Delta"), "Gamma");
+		}
+
+		private MetaModelHolder addInOrder(Map<String, TypeMetaModel> expected, String... keys)
+		{
+			MetaModelHolder holder = new MetaModelHolder();
+			for (String key : keys)
+			{
+				holder.addType(key, types.get(key));
+				expected.put(key, types.get(key));
+			}
+			return holder;
+		}
+
+		@Test
+		@DisplayName("returns the types in the order of their keys, whatever the order they were added in")
+		void typesInKeyOrder() throws IOException
+		{
+			parseGreekTypes();
+			Map<String, TypeMetaModel> expected = new TreeMap<>();
+			MetaModelHolder holder = addInOrder(expected, "com.example.Gamma", "com.example.Alpha", "com.example.Delta", "com.example.Beta");
+
+			assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(holder.getTypes()));
+			assertEquals(List.of("Alpha", "Beta", "Delta", "Gamma"), names(holder.getTypes()));
+		}
+
+		@Test
+		@DisplayName("sorts the types by public name and then by qualified name, like TypeMetaModel.compareTo")
+		void sortedTypesByPublicName() throws IOException
+		{
+			parseGreekTypes();
+			MetaModelHolder holder = addInOrder(new TreeMap<>(), "com.example.Gamma", "com.example.Alpha", "com.example.Delta", "com.example.Beta");
+
+			assertEquals(new ArrayList<>(new TreeSet<>(holder.getTypes())), new ArrayList<>(holder.getSortedTypes()));
+			assertEquals(List.of("Beta", "Delta", "Gamma", "Alpha"), names(holder.getSortedTypes()));
+		}
+
+		@Test
+		@DisplayName("follows the types that are added or replaced after the orders were computed")
+		void ordersFollowChanges() throws IOException
+		{
+			parseGreekTypes();
+			Map<String, TypeMetaModel> expected = new TreeMap<>();
+			MetaModelHolder holder = addInOrder(expected, "com.example.Gamma", "com.example.Beta");
+			assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(holder.getTypes()));
+			assertEquals(List.of("Beta", "Gamma"), names(holder.getSortedTypes()));
+
+			holder.addType("com.example.Alpha", types.get("com.example.Alpha"));
+			expected.put("com.example.Alpha", types.get("com.example.Alpha"));
+			holder.addType("com.example.Gamma", types.get("com.example.Epsilon"));
+			expected.put("com.example.Gamma", types.get("com.example.Epsilon"));
+
+			assertSame(types.get("com.example.Epsilon"), holder.getType("com.example.Gamma"));
+			assertTrue(holder.hasType("com.example.Alpha"));
+			assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(holder.getTypes()));
+			assertEquals(new ArrayList<>(new TreeSet<>(holder.getTypes())), new ArrayList<>(holder.getSortedTypes()));
+			assertEquals(List.of("Beta", "Epsilon", "Alpha"), names(holder.getSortedTypes()));
+		}
+
+		@Test
+		@DisplayName("keeps the key order of the holders it copies and adds")
+		void copyAndAddAllKeepKeyOrder() throws IOException
+		{
+			parseGreekTypes();
+			Map<String, TypeMetaModel> expected = new TreeMap<>();
+			MetaModelHolder holder = addInOrder(expected, "com.example.Delta", "com.example.Alpha");
+			MetaModelHolder other = new MetaModelHolder();
+			other.addType("com.example.Gamma", types.get("com.example.Gamma"));
+			other.addType("com.example.Beta", types.get("com.example.Beta"));
+
+			holder.addAll(other);
+
+			assertEquals(List.of("Alpha", "Beta", "Delta", "Gamma"), names(holder.getTypes()));
+			assertEquals(names(holder.getTypes()), names(holder.copy().getTypes()));
+			assertEquals(names(holder.getSortedTypes()), names(holder.copy().getSortedTypes()));
+		}
+	}
+
+	@Nested
+	@DisplayName("Reverse indexes")
+	class ReverseIndexes
+	{
+		private MetaModelHolder holder;
+
+		private void parseMailTypes() throws IOException
+		{
+			Map<String, TypeMetaModel> types = parseTypes(Map.of(
+				"Transport.java", "package com.example; public class Transport {}",
+				"ASmtpTransport.java", "package com.example; public class ASmtpTransport extends Transport {}",
+				"MImapTransport.java", "package com.example; public class MImapTransport extends Transport {}",
+				"ZPopTransport.java", "package com.example; public class ZPopTransport extends Transport {}",
+				"Sender.java", "package com.example; public interface Sender {}",
+				"Mailer.java", "package com.example; public interface Mailer extends Sender {}",
+				"BSender.java", "package com.example; public class BSender implements Sender {}",
+				"KSender.java", "package com.example; public class KSender extends ASmtpTransport implements Mailer, Sender {}",
+				"XSender.java", "package com.example; public class XSender implements Sender {}"));
+			document(types.get("com.example.MImapTransport"), null);
+			document(types.get("com.example.ZPopTransport"), null);
+			document(types.get("com.example.KSender"), null);
+			document(types.get("com.example.XSender"), null);
+			holder = new MetaModelHolder();
+			for (String key : new TreeSet<>(types.keySet()).descendingSet())
+			{
+				holder.addType(key, types.get(key));
+			}
+		}
+
+		/**
+		 * The search through all types that TypeMapper did before the reverse indexes, kept as the reference.
+		 */
+		private TypeName findFirstDocumentedSubclassOrImplementor(TypeName originalType)
+		{
+			for (TypeMetaModel cdr : holder.getTypes())
+			{
+				if (cdr.isServoyDocumented())
+				{
+					if (cdr.getSupertype() != null && originalType.isSameType(cdr.getSupertype()))
+					{
+						return cdr.getName();
+					}
+					for (TypeName i : cdr.getInterfaces())
+					{
+						if (originalType.isSameType(i))
+						{
+							return cdr.getName();
+						}
+					}
+				}
+			}
+			return null;
+		}
+
+		@Test
+		@DisplayName("finds the same implementors and subclasses, in the same order, as a search through all types")
+		void sameAsSearchThroughTypes() throws IOException
+		{
+			parseMailTypes();
+
+			List<TypeMetaModel> allTypes = new ArrayList<>(holder.getTypes());
+			for (TypeMetaModel type : allTypes)
+			{
+				List<TypeMetaModel> implementors = new ArrayList<>();
+				List<TypeMetaModel> subclasses = new ArrayList<>();
+				for (TypeMetaModel candidate : allTypes)
+				{
+					for (TypeName intf : candidate.getInterfaces())
+					{
+						if (type.getName().isSameType(intf)) implementors.add(candidate);
+					}
+					if (type.getName().isSameType(candidate.getSupertype())) subclasses.add(candidate);
+				}
+				assertEquals(implementors, holder.getImplementors(type.getName()), "implementors of " + type.getName().getShortName());
+				assertEquals(subclasses, holder.getSubclasses(type.getName()), "subclasses of " + type.getName().getShortName());
+			}
+			assertEquals(List.of("KSender"), names(holder.getSubclasses(holder.getType("com.example.ASmtpTransport").getName())));
+			assertEquals(List.of("BSender", "KSender", "Mailer", "XSender"), names(holder.getImplementors(holder.getType("com.example.Sender").getName())));
+		}
+
+		@Test
+		@DisplayName("compares the types by the order of their keys")
+		void compareKeyOrder() throws IOException
+		{
+			parseMailTypes();
+
+			List<TypeMetaModel> allTypes = new ArrayList<>(holder.getTypes());
+			for (int i = 0; i < allTypes.size(); i++)
+			{
+				for (int j = 0; j < allTypes.size(); j++)
+				{
+					assertEquals(Integer.signum(Integer.compare(i, j)), Integer.signum(holder.compareKeyOrder(allTypes.get(i), allTypes.get(j))),
+						allTypes.get(i).getName().getShortName() + " vs " + allTypes.get(j).getName().getShortName());
+				}
+			}
+		}
+
+		@Test
+		@DisplayName("maps an undocumented type to the same first documented subclass or implementor as a search through all types")
+		void mapsToFirstSubclassOrImplementor() throws IOException
+		{
+			parseMailTypes();
+			TypeMapper mapper = new TypeMapper(true);
+
+			for (String name : List.of("com.example.Transport", "com.example.ASmtpTransport", "com.example.Sender", "com.example.Mailer"))
+			{
+				TypeName originalType = holder.getType(name).getName();
+				TypeName expected = findFirstDocumentedSubclassOrImplementor(originalType);
+				assertNotNull(expected, name + " should have a documented subclass or implementor");
+
+				boolean[] wasFound = new boolean[1];
+				TypeName mapped = mapper.mapType(holder, originalType, false, wasFound);
+
+				assertTrue(wasFound[0], name + " should be mapped");
+				assertEquals(expected.getQualifiedName(), mapped.getQualifiedName(), "mapping of " + name);
+			}
+			assertEquals("com.example.MImapTransport", mapper.mapType(holder, holder.getType("com.example.Transport").getName(), false, new boolean[1])
+				.getQualifiedName());
+			assertEquals("com.example.KSender", mapper.mapType(holder, holder.getType("com.example.Sender").getName(), false, new boolean[1])
+				.getQualifiedName());
+		}
+	}
+
+	@Nested
+	@DisplayName("Lookups by type name")
+	class LookupsByTypeName
+	{
+		@Test
+		@DisplayName("finds the same types by the keys of the pooled type names as by their base binary names")
+		void sameAsLookupByBinaryName() throws IOException
+		{
+			Map<String, TypeMetaModel> types = parseTypes(Map.of(
+				"Base.java", "package com.example; public class Base { public static class Inner {} }",
+				"Middle.java", "package com.example; public class Middle extends Base implements java.io.Serializable {}",
+				"Leaf.java", "package com.example; public class Leaf extends Middle implements Comparable<Leaf> { public int compareTo(Leaf o) { return 0; } }",
+				"Nested.java", "package com.example; public class Nested extends Base.Inner {}"));
+			MetaModelHolder holder = new MetaModelHolder();
+			for (String key : types.keySet())
+			{
+				holder.addType(key, types.get(key));
+			}
+
+			for (TypeMetaModel type : types.values())
+			{
+				List<TypeName> referenced = new ArrayList<>(type.getInterfaces());
+				referenced.add(type.getName());
+				if (type.getSupertype() != null) referenced.add(type.getSupertype());
+				for (TypeName name : referenced)
+				{
+					assertSame(holder.getType(name.getBaseBinaryName()), holder.getType(name), name.getQualifiedName());
+				}
+			}
+			assertSame(types.get("com.example.Base"), holder.getType(types.get("com.example.Middle").getSupertype()));
+			assertSame(types.get("com.example.Middle"), holder.getType(types.get("com.example.Leaf").getSupertype()));
+		}
+
+		@Test
+		@DisplayName("considers pooled type names equal to the type names built from strings and classes for the same types")
+		void pooledEqualToBuilt() throws IOException
+		{
+			Map<String, TypeMetaModel> types = parseTypes(Map.of(
+				"Base.java", "package com.example; public class Base { public static class Inner {} }",
+				"Middle.java", "package com.example; public class Middle extends Base implements java.io.Serializable {}",
+				"Nested.java", "package com.example; public class Nested extends Base.Inner {}"));
+
+			TypeName base = types.get("com.example.Middle").getSupertype();
+			TypeName serializable = types.get("com.example.Middle").getInterfaces().get(0);
+			TypeName inner = types.get("com.example.Nested").getSupertype();
+
+			assertEquals(new TypeName("com.example.Base", null), base);
+			assertEquals(new TypeName("com.example.Base", null).hashCode(), base.hashCode());
+			assertEquals(new TypeName(java.io.Serializable.class), serializable);
+			assertEquals(new TypeName(java.io.Serializable.class).hashCode(), serializable.hashCode());
+			assertEquals(new TypeName("Inner", "com.example.Base$"), inner);
+			assertEquals("com.example.Base$Inner", inner.getQualifiedName());
+			assertTrue(base.isSameType(types.get("com.example.Base").getName()));
+			assertFalse(base.equals(inner));
+		}
+	}
+}
@@ -2,22 +2,16 @@ package com.servoy.eclipse.docgenerator.metamodel;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import org.eclipse.jdt.core.dom.AST;
-import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.FileASTRequestor;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,10 +20,13 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.servoy.eclipse.docgenerator.TestSources;
+
 @DisplayName("TypeMetaModel - Generic Type Resolution")
 class TypeMetaModelGenericResolutionTest
 {
 	private MetaModelHolder holder;
+	private final TypeNamePool typeNames = new TypeNamePool();
 
 	@TempDir
 	Path tempDir;
@@ -102,6 +99,19 @@ class TypeMetaModelGenericResolutionTest
 		}
 		""";
 
+	private static final String OUTER_SOURCE = """
+		package com.example;
+		public class Outer {
+		    public static class Inner {}
+		}
+		""";
+
+	private static final String NESTED_ARGUMENT_IMPL_SOURCE = """
+		package com.example;
+		public class NestedArgumentBuilder implements Builder<Outer.Inner> {
+		}
+		""";
+
 	@BeforeEach
 	void setUp()
 	{
@@ -110,46 +120,7 @@ class TypeMetaModelGenericResolutionTest
 
 	private void parseAndBuildMetaModel(Map<String, String> sourceFiles) throws IOException
 	{
-		Path pkgDir = tempDir.resolve("com").resolve("example");
-		Files.createDirectories(pkgDir);
-
-		List<String> filePaths = new ArrayList<>();
-		List<String> encodings = new ArrayList<>();
-
-		for (Map.Entry<String, String> entry : sourceFiles.entrySet())
-		{
-			Path file = pkgDir.resolve(entry.getKey());
-			Files.writeString(file, entry.getValue());
-			filePaths.add(file.toAbsolutePath().toString());
-			encodings.add("UTF-8");
-		}
-
-		ASTParser parser = ASTParser.newParser(AST.JLS21);
-		parser.setKind(ASTParser.K_COMPILATION_UNIT);
-		parser.setResolveBindings(true);
-		parser.setBindingsRecovery(true);
-		parser.setStatementsRecovery(true);
-		parser.setEnvironment(new String[0], new String[]{ tempDir.toAbsolutePath().toString() }, new String[]{ "UTF-8" }, true);
-
-		Map<String, String> options = new HashMap<>();
-		options.put("org.eclipse.jdt.core.compiler.source", "21");
-		options.put("org.eclipse.jdt.core.compiler.compliance", "21");
-		options.put("org.eclipse.jdt.core.compiler.codegen.targetPlatform", "21");
-		parser.setCompilerOptions(options);
-
-		parser.createASTs(
-			filePaths.toArray(new String[0]),
-			encodings.toArray(new String[0]),
-			new String[0],
-			new FileASTRequestor()
-			{
-				@Override
-				public void acceptAST(String sourceFilePath, CompilationUnit cu)
-				{
-					buildMetaModel(cu);
-				}
-			},
-			null);
+		TestSources.parse(tempDir, sourceFiles, (sourceFilePath, cu) -> buildMetaModel(cu));
 	}
 
 	private void buildMetaModel(CompilationUnit cu)
@@ -165,12 +136,12 @@ class TypeMetaModelGenericResolutionTest
 					pkg = cu.getPackage().getName().getFullyQualifiedName();
 				}
 				boolean isInterface = node.isInterface();
-				TypeMetaModel tmm = new TypeMetaModel(pkg, Collections.emptyList(), node, isInterface);
+				TypeMetaModel tmm = new TypeMetaModel(pkg, Collections.emptyList(), node, isInterface, typeNames);
 				tmm.setAnnotations(new AnnotationsList());
 
 				for (MethodDeclaration method : node.getMethods())
 				{
-					MethodMetaModel mmm = new MethodMetaModel(tmm.getName().getQualifiedName(), method);
+					MethodMetaModel mmm = new MethodMetaModel(tmm.getName().getQualifiedName(), method, typeNames);
 					mmm.setAnnotations(new AnnotationsList());
 					tmm.addMember(mmm.getIndexSignature(), mmm);
 				}
@@ -266,6 +237,23 @@ class TypeMetaModelGenericResolutionTest
 			assertEquals("java.lang.String", getValue.getType().getQualifiedName(),
 				"Return type of getValue should remain String (no generic substitution)");
 		}
+
+		@Test
+		@DisplayName("members removed from the supertype disappear from the already flattened members")
+		void testRemovedSupertypeMemberIsNotInherited() throws IOException
+		{
+			parseAndBuildMetaModel(Map.of(
+				"NonGenericBase.java", NON_GENERIC_BASE_SOURCE,
+				"NonGenericChild.java", NON_GENERIC_CHILD_SOURCE));
+
+			TypeMetaModel base = holder.getType("com.example.NonGenericBase");
+			TypeMetaModel child = holder.getType("com.example.NonGenericChild");
+			assertNotNull(findMember(child.getMembers(holder), "getValue"), "getValue should be inherited from NonGenericBase");
+
+			base.removeMember(findMember(base.getMembers(), "getValue").getIndexSignature());
+
+			assertNull(findMember(child.getMembers(holder), "getValue"), "getValue should not be inherited after it was removed");
+		}
 	}
 
 	@Nested
@@ -335,6 +323,26 @@ class TypeMetaModelGenericResolutionTest
 			assertEquals("com.example.ConcreteBuilder", self.getType().getQualifiedName(),
 				"Return type of self() should be resolved to ConcreteBuilder");
 		}
+
+		@Test
+		@DisplayName("nested type arguments keep the name of their binding, adapted to the nesting of the type parameter")
+		void testNestedTypeArgumentResolution() throws IOException
+		{
+			parseAndBuildMetaModel(Map.of(
+				"Builder.java", GENERIC_INTERFACE_SOURCE,
+				"Outer.java", OUTER_SOURCE,
+				"NestedArgumentBuilder.java", NESTED_ARGUMENT_IMPL_SOURCE));
+
+			TypeMetaModel nestedArgumentBuilder = holder.getType("com.example.NestedArgumentBuilder");
+			assertNotNull(nestedArgumentBuilder, "NestedArgumentBuilder should be in the holder");
+
+			IMemberMetaModel self = findMember(nestedArgumentBuilder.getMembers(holder), "self");
+			assertNotNull(self, "self should be inherited from Builder interface");
+			assertEquals("com.example.Outer.Inner", self.getType().getQualifiedName(),
+				"T is not nested, so the qualified name of the type argument is kept as JDT gives it");
+			assertEquals("com.example.Outer$Inner", self.getType().getBaseBinaryName(),
+				"The binary name of the type argument should be kept");
+		}
 	}
 
 	@Nested
@@ -0,0 +1,301 @@
+package com.servoy.eclipse.docgenerator.metamodel;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.servoy.eclipse.docgenerator.TestSources;
+
+@DisplayName("TypeMetaModel - Inherited members")
+class TypeMetaModelInheritanceTest
+{
+	private MetaModelHolder holder;
+	private final TypeNamePool typeNames = new TypeNamePool();
+
+	@TempDir
+	Path tempDir;
+
+	private static final String NAMED_SOURCE = """
+		package com.example;
+		public interface Named {
+		    String getName();
+		    String getLabel();
+		}
+		""";
+
+	private static final String LABELED_SOURCE = """
+		package com.example;
+		public interface Labeled {
+		    String getCaption();
+		}
+		""";
+
+	private static final String TITLED_SOURCE = """
+		package com.example;
+		public interface Titled extends Labeled {
+		    String getName();
+		    String getTitle();
+		}
+		""";
+
+	private static final String BASE_SOURCE = """
+		package com.example;
+		public abstract class Base implements Titled {
+		    public String getName() { return null; }
+		}
+		""";
+
+	private static final String CHILD_SOURCE = """
+		package com.example;
+		public abstract class Child extends Base implements Named, Titled {
+		    public String getLabel() { return null; }
+		}
+		""";
+
+	@BeforeEach
+	void setUp() throws IOException
+	{
+		holder = new MetaModelHolder();
+		parseAndBuildMetaModel(Map.of(
+			"Named.java", NAMED_SOURCE,
+			"Labeled.java", LABELED_SOURCE,
+			"Titled.java", TITLED_SOURCE,
+			"Base.java", BASE_SOURCE,
+			"Child.java", CHILD_SOURCE));
+	}
+
+	private void parseAndBuildMetaModel(Map<String, String> sourceFiles) throws IOException
+	{
+		TestSources.parse(tempDir, sourceFiles, (sourceFilePath, cu) -> cu.accept(new ASTVisitor()
+		{
+			@Override
+			public boolean visit(TypeDeclaration node)
+			{
+				TypeMetaModel tmm = new TypeMetaModel(cu.getPackage().getName().getFullyQualifiedName(), Collections.emptyList(), node,
+					node.isInterface(), typeNames);
+				tmm.setAnnotations(new AnnotationsList());
+				for (MethodDeclaration method : node.getMethods())
+				{
+					MethodMetaModel mmm = new MethodMetaModel(tmm.getName().getQualifiedName(), method, typeNames);
+					mmm.setAnnotations(new AnnotationsList());
+					tmm.addMember(mmm.getIndexSignature(), mmm);
+				}
+				holder.addType(tmm.getName().getBaseBinaryName(), tmm);
+				return false;
+			}
+		}));
+	}
+
+	private IMemberMetaModel declared(String typeName, String methodName)
+	{
+		for (IMemberMetaModel member : holder.getType("com.example." + typeName).getMembers())
+		{
+			if (member.getName().equals(methodName)) return member;
+		}
+		return null;
+	}
+
+	private Set<String> allIndexSignatures()
+	{
+		Set<String> signatures = new TreeSet<>();
+		for (TypeMetaModel type : holder.getTypes())
+		{
+			for (IMemberMetaModel member : type.getMembers())
+			{
+				signatures.add(member.getIndexSignature());
+			}
+		}
+		return signatures;
+	}
+
+	@Nested
+	@DisplayName("Member lookup")
+	class MemberLookup
+	{
+		/**
+		 * The recursive lookup that getMember did before the member indexes, kept as the reference.
+		 */
+		private IMemberMetaModel findMemberRecursively(TypeMetaModel tmm, String memberName)
+		{
+			IMemberMetaModel member = tmm.getMember(memberName, null);
+			if (member != null) return member;
+			TypeMetaModel superType = holder.getType(tmm.getSupertype());
+			if (superType != null)
+			{
+				member = findMemberRecursively(superType, memberName);
+				if (member != null) return member;
+			}
+			for (TypeName i : tmm.getInterfaces())
+			{
+				TypeMetaModel intf = holder.getType(i);
+				if (intf != null)
+				{
+					member = intf.getMember(memberName, null);
+					if (member != null) return member;
+				}
+			}
+			return null;
+		}
+
+		@Test
+		@DisplayName("finds the same members as the recursive lookup through the supertypes and interfaces")
+		void sameAsRecursiveLookup()
+		{
+			for (TypeMetaModel type : holder.getTypes())
+			{
+				for (String signature : allIndexSignatures())
+				{
+					assertSame(findMemberRecursively(type, signature), type.getMember(signature, holder),
+						signature + " in " + type.getName().getShortName());
+				}
+			}
+		}
+
+		@Test
+		@DisplayName("lets the members of the supertype win over the members of the interfaces with the same signature")
+		void supertypeWinsOverInterfaces()
+		{
+			TypeMetaModel child = holder.getType("com.example.Child");
+
+			assertSame(declared("Base", "getName"), child.getMember(declared("Named", "getName").getIndexSignature(), holder));
+			assertSame(declared("Titled", "getTitle"), child.getMember(declared("Titled", "getTitle").getIndexSignature(), holder));
+			assertSame(declared("Child", "getLabel"), child.getMember(declared("Named", "getLabel").getIndexSignature(), holder));
+			assertNull(child.getMember(declared("Labeled", "getCaption").getIndexSignature(), holder),
+				"only the members declared by the direct interfaces are found");
+		}
+
+		@Test
+		@DisplayName("falls back to the interfaces of the supertype when the member is removed from the supertype")
+		void followsRemovedMembers()
+		{
+			TypeMetaModel child = holder.getType("com.example.Child");
+			String signature = declared("Base", "getName").getIndexSignature();
+			assertSame(declared("Base", "getName"), child.getMember(signature, holder));
+
+			holder.getType("com.example.Base").removeMember(signature);
+
+			assertSame(findMemberRecursively(child, signature), child.getMember(signature, holder));
+			assertSame(declared("Titled", "getName"), child.getMember(signature, holder),
+				"Titled is an interface of Base, which wins over the interfaces of Child");
+		}
+	}
+
+	@Nested
+	@DisplayName("Inherited Javadocs")
+	class JavadocInheritance
+	{
+		private final Map<String, JavadocMetaModel> javadocs = new HashMap<>();
+
+		@BeforeEach
+		void setUpJavadocs()
+		{
+			setJavadoc("Named", "getName", "The name of a named thing.");
+			setJavadoc("Named", "getLabel", "The label of a named thing.");
+			setJavadoc("Titled", "getName", "The name of a titled thing.");
+			setJavadoc("Titled", "getTitle", "The title.");
+			setJavadoc("Labeled", "getCaption", "The caption.");
+		}
+
+		private void setJavadoc(String typeName, String methodName, String text)
+		{
+			JavadocMetaModel javadoc = new JavadocMetaModel();
+			JavadocTagPart textTag = new JavadocTagPart(JavadocMetaModel.TEXT_TAG);
+			textTag.addPart(new JavadocTextPart(text));
+			javadoc.addPart(textTag);
+			((MemberMetaModel)declared(typeName, methodName)).setJavadoc(javadoc);
+			javadocs.put(typeName + "." + methodName, javadoc);
+		}
+
+		/**
+		 * The recursive search that MemberMetaModel.getJavadoc did before the inherited Javadocs were kept, as the reference.
+		 */
+		private JavadocMetaModel findJavadocRecursively(TypeMetaModel tmm, String memberName)
+		{
+			if (tmm == null) return null;
+			IMemberMetaModel member = tmm.getMember(memberName, null);
+			if (member != null && member.getJavadoc(null) != null) return member.getJavadoc(null);
+			JavadocMetaModel superClassJavaDoc = findJavadocRecursively(holder.getType(tmm.getSupertype()), memberName);
+			if (superClassJavaDoc != null) return superClassJavaDoc;
+			for (TypeName intf : tmm.getInterfaces())
+			{
+				JavadocMetaModel jdoc = findJavadocRecursively(holder.getType(intf), memberName);
+				if (jdoc != null) return jdoc;
+			}
+			return null;
+		}
+
+		@Test
+		@DisplayName("finds the same Javadocs as the recursive search through the supertypes and interfaces")
+		void sameAsRecursiveSearch()
+		{
+			for (TypeMetaModel type : holder.getTypes())
+			{
+				for (IMemberMetaModel member : type.getMembers())
+				{
+					assertSame(findJavadocRecursively(type, member.getIndexSignature()), member.getJavadoc(holder),
+						member.getName() + " in " + type.getName().getShortName());
+				}
+				for (String signature : allIndexSignatures())
+				{
+					assertSame(findJavadocRecursively(type, signature), type.getInheritedJavadoc(signature, holder),
+						signature + " in " + type.getName().getShortName());
+				}
+			}
+		}
+
+		@Test
+		@DisplayName("looks in the supertype first and then in the interfaces")
+		void supertypeBeforeInterfaces()
+		{
+			TypeMetaModel child = holder.getType("com.example.Child");
+
+			assertSame(javadocs.get("Titled.getName"), declared("Base", "getName").getJavadoc(holder));
+			assertSame(javadocs.get("Titled.getName"), child.getInheritedJavadoc(declared("Base", "getName").getIndexSignature(), holder),
+				"Titled is reached through Base, which comes before the interfaces of Child");
+			assertSame(javadocs.get("Named.getLabel"), declared("Child", "getLabel").getJavadoc(holder));
+			assertSame(javadocs.get("Labeled.getCaption"), child.getInheritedJavadoc(declared("Labeled", "getCaption").getIndexSignature(), holder),
+				"the Javadocs are also inherited from the interfaces of the interfaces");
+		}
+
+		@Test
+		@DisplayName("prefers the Javadoc of the member itself")
+		void ownJavadocFirst()
+		{
+			setJavadoc("Base", "getName", "The name of the base.");
+
+			assertSame(javadocs.get("Base.getName"), declared("Base", "getName").getJavadoc(holder));
+			assertSame(javadocs.get("Base.getName"), holder.getType("com.example.Child").getInheritedJavadoc(
+				declared("Base", "getName").getIndexSignature(), holder));
+		}
+
+		@Test
+		@DisplayName("falls back to the next interface when the documented member is removed")
+		void followsRemovedMembers()
+		{
+			IMemberMetaModel getName = declared("Base", "getName");
+			TypeMetaModel child = holder.getType("com.example.Child");
+			assertSame(javadocs.get("Titled.getName"), child.getInheritedJavadoc(getName.getIndexSignature(), holder));
+
+			holder.getType("com.example.Titled").removeMember(getName.getIndexSignature());
+
+			assertSame(javadocs.get("Named.getName"), child.getInheritedJavadoc(getName.getIndexSignature(), holder));
+			assertSame(javadocs.get("Named.getName"), findJavadocRecursively(child, getName.getIndexSignature()));
+		}
+	}
+}
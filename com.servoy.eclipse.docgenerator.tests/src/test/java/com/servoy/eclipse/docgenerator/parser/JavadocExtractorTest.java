@@ -0,0 +1,134 @@
+package com.servoy.eclipse.docgenerator.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.servoy.eclipse.docgenerator.TestSources;
+import com.servoy.eclipse.docgenerator.metamodel.IMemberMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.JavadocMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
+
+@DisplayName("JavadocExtractor")
+class JavadocExtractorTest
+{
+	private static final String MAIL_BASE_SOURCE = """
+		package com.example;
+		public class MailBase {
+		    /** The mail server. */
+		    public String getServer() { return null; }
+		    /** Sends the mail. */
+		    public void send() {}
+		}
+		""";
+
+	private static final String MAIL_PLUGIN_SOURCE = """
+		package com.example;
+		public class MailPlugin extends MailBase {
+		    public String getServer() { return null; }
+		    /**
+		     * @sameas com.example.MailBase#send()
+		     */
+		    public void js_send() {}
+		}
+		""";
+
+	@TempDir
+	Path tempDir;
+
+	private MetaModelHolder extract(boolean lightweightJavadocs, Map<String, String> sourceFiles) throws IOException
+	{
+		JavadocExtractor extractor = new JavadocExtractor();
+		extractor.setLightweightJavadocs(lightweightJavadocs);
+		TestSources.parse(tempDir, sourceFiles,
+			Map.of(JavaCore.COMPILER_DOC_COMMENT_SUPPORT, lightweightJavadocs ? JavaCore.DISABLED : JavaCore.ENABLED), (sourceFilePath, ast) -> {
+				try
+				{
+					extractor.setSourceCodeTracker(new SourceCodeTracker(Files.readString(Path.of(sourceFilePath))));
+				}
+				catch (IOException e)
+				{
+					throw new RuntimeException(e);
+				}
+				ast.accept(extractor);
+			});
+		return extractor.getRawDataHolder();
+	}
+
+	private static IMemberMetaModel findMember(Collection<IMemberMetaModel> members, String name)
+	{
+		return members.stream().filter(m -> m.getName().equals(name)).findFirst().orElse(null);
+	}
+
+	@Nested
+	@DisplayName("Lightweight Javadocs")
+	class LightweightJavadocs
+	{
+		@ParameterizedTest
+		@ValueSource(booleans = { false, true })
+		@DisplayName("keeps the Javadocs inherited from a type that is not documented")
+		void keepsInheritedJavadocs(boolean lightweightJavadocs) throws IOException
+		{
+			MetaModelHolder holder = extract(lightweightJavadocs, Map.of("MailBase.java", MAIL_BASE_SOURCE, "MailPlugin.java", MAIL_PLUGIN_SOURCE));
+
+			TypeMetaModel plugin = holder.getType("com.example.MailPlugin");
+			JavadocMetaModel inherited = findMember(plugin.getMembers(), "getServer").getJavadoc(holder);
+			assertNotNull(inherited, "getServer should inherit the Javadoc of MailBase");
+			assertEquals("The mail server.", inherited.getAsString(false).trim());
+		}
+
+		@ParameterizedTest
+		@ValueSource(booleans = { false, true })
+		@DisplayName("keeps the Javadocs of @sameas targets in a type that is not documented")
+		void keepsSameAsTargets(boolean lightweightJavadocs) throws IOException
+		{
+			MetaModelHolder holder = extract(lightweightJavadocs, Map.of("MailBase.java", MAIL_BASE_SOURCE, "MailPlugin.java", MAIL_PLUGIN_SOURCE));
+
+			JavadocMetaModel sameAs = findMember(holder.getType("com.example.MailPlugin").getMembers(), "js_send").getJavadoc(holder);
+			assertEquals(1, sameAs.findTags("@sameas").size());
+			JavadocMetaModel target = findMember(holder.getType("com.example.MailBase").getMembers(), "send").getJavadoc(holder);
+			assertNotNull(target, "the target of @sameas should keep its Javadoc");
+			assertEquals("Sends the mail.", target.getAsString(false).trim());
+		}
+	}
+
+	@Nested
+	@DisplayName("Whitespace normalization")
+	class WhitespaceNormalization
+	{
+		/**
+		 * The regular expressions that were used before normalizeWhitespace, kept as the reference.
+		 */
+		private String normalizeWithRegex(String text)
+		{
+			String prefix = Pattern.compile("^[ \\t]*\\*[ ]?", Pattern.MULTILINE).matcher(text).replaceAll("");
+			prefix = Pattern.compile("\\r\\n").matcher(prefix).replaceAll("\n");
+			prefix = Pattern.compile("\\r").matcher(prefix).replaceAll("\n");
+			return prefix;
+		}
+
+		@ParameterizedTest
+		@ValueSource(strings = { "", " ", "\n", "\n * ", "\n *  indented", "\n\t *\t", "\r\n * ", "\r\n *\r\n * ", "\r", "\r * ", "\r *\n",
+			"\r *\n * ", "\r\r\n", "\n\r * ", "   \t  ", " \t *   \t", "\n   \t\t * \t ", "*", "**", " ** ", "\n * * ", "\u0085 * ",
+			"\u2028 * ", "\u2029 * ", "\n\u0085\u2028\u2029 * ", "\u0085\r\n * ", " x \u2028 *y" })
+		@DisplayName("gives the same result as the regular expressions")
+		void sameAsRegex(String text)
+		{
+			assertEquals(normalizeWithRegex(text), JavadocExtractor.normalizeWhitespace(text));
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.servoy.eclipse.docgenerator.parser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.servoy.eclipse.docgenerator.metamodel.JavadocMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.JavadocTagPart;
+import com.servoy.eclipse.docgenerator.metamodel.ReferenceMetaModel;
+
+@DisplayName("JavadocTokenizer")
+class JavadocTokenizerTest
+{
+	private static JavadocMetaModel tokenize(String comment)
+	{
+		JavadocMetaModel javadoc = JavadocTokenizer.tokenize(comment);
+		javadoc.compress();
+		return javadoc;
+	}
+
+	@Test
+	@DisplayName("splits the description and the block tags, stripping the line prefixes")
+	void splitsDescriptionAndBlockTags()
+	{
+		JavadocMetaModel javadoc = tokenize("/**\r\n * Sends a mail.\r\n *\r\n *   indented\r\n * @param to the receiver\r\n *        of the mail\r\n * @deprecated\r\n */");
+
+		assertEquals("Sends a mail.\n\n  indented", javadoc.findTags(JavadocMetaModel.TEXT_TAG).get(0).getAsString(false));
+		assertEquals("to the receiver\n       of the mail", javadoc.findTags("@param").get(0).getAsString(true));
+		assertTrue(javadoc.findTags("@deprecated").get(0).getParts().isEmpty());
+	}
+
+	@Test
+	@DisplayName("keeps inline tags nested, with balanced braces")
+	void keepsInlineTagsNested()
+	{
+		JavadocMetaModel javadoc = tokenize("/** Use {@code if (a) { b(); }} here, mail me@home. */");
+
+		List<JavadocTagPart> code = javadoc.findTags(JavadocMetaModel.TEXT_TAG).get(0).findTags("@code");
+		assertEquals(1, code.size());
+		assertEquals("if (a) { b(); }", code.get(0).getAsString(true));
+		assertEquals("Use {@code if (a) { b(); }} here, mail me@home. ", javadoc.getAsString(false));
+	}
+
+	@Test
+	@DisplayName("turns member references into unresolved references")
+	void turnsMemberReferencesIntoReferences()
+	{
+		JavadocTagPart link = tokenize("/** See {@link java.util.Map#put(java.lang.Object key, Object... values) put}. */").findTags(
+			JavadocMetaModel.TEXT_TAG).get(0).findTags("@link").get(0);
+
+		ReferenceMetaModel ref = assertInstanceOf(ReferenceMetaModel.class, link.getParts().get(1));
+		assertEquals("java.util.Map", ref.getTypeQualifiedName());
+		assertEquals("put", ref.getMemberName());
+		assertArrayEquals(new String[] { "Object", "Object[]" }, ref.getArgumentsTypesNames());
+		assertEquals(" put", link.getParts().get(2).getAsString(true));
+	}
+}
@@ -0,0 +1,62 @@
+package com.servoy.eclipse.docgenerator.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PackagePrefixTrie")
+class PackagePrefixTrieTest
+{
+	private final PackagePrefixTrie trie = new PackagePrefixTrie(Arrays.asList("com.servoy.extensions", "com.servoy.j2db.plugins", "com.servoy"));
+
+	@Test
+	@DisplayName("matches a listed package and its subpackages")
+	void matchesListedAndSubpackages()
+	{
+		assertTrue(new PackagePrefixTrie(Arrays.asList("org.acme")).matches("org.acme"));
+		assertTrue(new PackagePrefixTrie(Arrays.asList("org.acme")).matches("org.acme.plugins.mail"));
+	}
+
+	@Test
+	@DisplayName("does not match on a partial segment")
+	void doesNotMatchPartialSegment()
+	{
+		PackagePrefixTrie acme = new PackagePrefixTrie(Arrays.asList("org.acme"));
+		assertFalse(acme.matches("org.acmeplugins"));
+		assertFalse(acme.matches("org"));
+		assertFalse(acme.matches("net.acme"));
+	}
+
+	@Test
+	@DisplayName("returns the shortest listed prefix")
+	void returnsShortestPrefix()
+	{
+		assertEquals("com.servoy", trie.getMatchingPrefix("com.servoy.extensions.plugins.http"));
+		assertEquals("com.servoy", trie.getMatchingPrefix("com.servoy"));
+		assertNull(trie.getMatchingPrefix("com"));
+	}
+
+	@Test
+	@DisplayName("matches like the comparison of the names at a dot, also for prefixes with a trailing dot")
+	void sameAsNameComparison()
+	{
+		String[] prefixes = { "com.servoy.", "org.acme", "" };
+		String[] packageNames = { "com.servoy", "com.servoy.extensions", "com.servoy.", "com.servoy..x", "org.acme", "org.acme.mail", "", "org" };
+		for (String prefix : prefixes)
+		{
+			PackagePrefixTrie single = new PackagePrefixTrie(Arrays.asList(prefix));
+			for (String packageName : packageNames)
+			{
+				assertEquals(packageName.equals(prefix) || packageName.startsWith(prefix + '.'), single.matches(packageName),
+					"'" + packageName + "' against the prefix '" + prefix + "'");
+			}
+		}
+		assertFalse(new PackagePrefixTrie(Arrays.asList("com.servoy.")).matches("com.servoy.extensions"));
+	}
+}
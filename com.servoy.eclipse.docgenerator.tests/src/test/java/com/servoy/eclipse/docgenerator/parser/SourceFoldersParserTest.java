@@ -0,0 +1,260 @@
+package com.servoy.eclipse.docgenerator.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.metamodel.MethodMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
+import com.servoy.eclipse.docgenerator.service.DocumentationGenerationRequest;
+
+@DisplayName("SourceFoldersParser")
+class SourceFoldersParserTest
+{
+	private static final String PLUGIN_SOURCE = """
+		package com.example;
+		import com.example.base.MailBase;
+		/**
+		 * The plugin.
+		 */
+		public class MailPlugin extends MailBase {
+		    /** Sends a mail. */
+		    public void send(String to) {}
+		}
+		""";
+
+	private static final String BASE_SOURCE = """
+		package com.example.base;
+		public class MailBase {
+		    public String getServer() { return null; }
+		}
+		""";
+
+	private static final String SHAPE_SOURCE = """
+		package com.example.shapes;
+		/**
+		 * A shape.
+		 */
+		public sealed interface Shape permits Circle {
+		    /** The area of the shape. */
+		    double area();
+		}
+		""";
+
+	private static final String CIRCLE_SOURCE = """
+		package com.example.shapes;
+		public final class Circle implements Shape {
+		    public record Radius(double value) {}
+		    /** Scales the circle. */
+		    public Circle scale(Radius radius) {
+		        return switch (radius) {
+		            case Radius r when r.value() > 1 -> this;
+		            default -> null;
+		        };
+		    }
+		    public double area() { return 0; }
+		}
+		""";
+
+	@TempDir
+	Path tempDir;
+
+	private Path pluginFolder;
+	private Path baseFolder;
+	private final List<Integer> progress = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException
+	{
+		pluginFolder = tempDir.resolve("mail_plugin").resolve("src");
+		baseFolder = tempDir.resolve("servoy_base").resolve("src");
+		writeSource(baseFolder, "com/example/base/MailBase.java", BASE_SOURCE);
+		writeSource(pluginFolder, "com/example/MailPlugin.java", PLUGIN_SOURCE);
+	}
+
+	private static void writeSource(Path folder, String relativePath, String source) throws IOException
+	{
+		Path file = folder.resolve(relativePath);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, source);
+	}
+
+	private SourceFoldersParser newParser()
+	{
+		return new SourceFoldersParser(ASTParser.newParser(AST.getJLSLatest()), new TestRequest(),
+			Arrays.asList(pluginFolder.toString(), baseFolder.toString()), Collections.<String> emptyList());
+	}
+
+	@Test
+	@DisplayName("collects the source files of all folders, grouped by package in name order")
+	void collectsSourceFilesByPackage()
+	{
+		Map<String, List<File>> filesByPackage = newParser().collectSourceFiles();
+
+		assertEquals(Arrays.asList("com.example", "com.example.base"), new ArrayList<>(filesByPackage.keySet()));
+		assertEquals("MailPlugin.java", filesByPackage.get("com.example").get(0).getName());
+		assertEquals("MailBase.java", filesByPackage.get("com.example.base").get(0).getName());
+	}
+
+	@Test
+	@DisplayName("extracts the types of each file, resolving the supertypes across source folders")
+	void extractsTypesOfEachFile()
+	{
+		SourceFoldersParser parser = newParser();
+		List<File> files = new ArrayList<>();
+		for (List<File> packageFiles : parser.collectSourceFiles().values())
+		{
+			files.addAll(packageFiles);
+		}
+
+		Map<String, MetaModelHolder> extracted = parser.extractFiles(files);
+
+		assertEquals(2, extracted.size());
+		MetaModelHolder pluginTypes = extracted.get(pluginFolder.resolve("com/example/MailPlugin.java").toFile().getAbsolutePath());
+		assertNotNull(pluginTypes.getType("com.example.MailPlugin"), "MailPlugin should be extracted from its own file");
+		assertNull(pluginTypes.getType("com.example.base.MailBase"), "MailBase belongs to the holder of its own file");
+		assertEquals("com.example.base.MailBase", pluginTypes.getType("com.example.MailPlugin").getSupertype().getQualifiedName());
+	}
+
+	@Test
+	@DisplayName("parses the files as Java 21 sources, whatever the default options of JDT are")
+	void parsesJava21Syntax() throws IOException
+	{
+		writeSource(pluginFolder, "com/example/shapes/Shape.java", SHAPE_SOURCE);
+		writeSource(pluginFolder, "com/example/shapes/Circle.java", CIRCLE_SOURCE);
+		SourceFoldersParser parser = newParser();
+		parser.setSourceLevel("21");
+		List<File> files = parser.collectSourceFiles().get("com.example.shapes");
+
+		MetaModelHolder types = new MetaModelHolder();
+		for (MetaModelHolder fileTypes : parser.extractFiles(files).values())
+		{
+			types.addAll(fileTypes);
+		}
+
+		TypeMetaModel shape = types.getType("com.example.shapes.Shape");
+		assertNotNull(shape, "the sealed interface should be extracted");
+		assertTrue(shape.isInterface());
+		assertEquals("A shape.", shape.getJavadoc().getAsString(false).trim());
+		TypeMetaModel circle = types.getType("com.example.shapes.Circle");
+		assertNotNull(circle, "the class permitted by the sealed interface should be extracted");
+		assertEquals("com.example.shapes.Shape", circle.getInterfaces().get(0).getQualifiedName());
+		MethodMetaModel scale = (MethodMetaModel)circle.getMembers().stream().filter(m -> m.getName().equals("scale")).findFirst().orElse(null);
+		assertNotNull(scale, "the method taking a record should be extracted");
+		assertEquals("com.example.shapes.Circle.Radius", scale.getParameters().get("radius").getQualifiedName(),
+			"the record type of the parameter should be resolved");
+		assertTrue(scale.getWarnings().isEmpty(), "no binding should be left unresolved: " + scale.getWarnings());
+	}
+
+	@Test
+	@DisplayName("reports the progress up to the end of the range, without the reserve")
+	void reportsProgress()
+	{
+		SourceFoldersParser parser = newParser();
+		List<File> files = new ArrayList<>();
+		for (List<File> packageFiles : parser.collectSourceFiles().values())
+		{
+			files.addAll(packageFiles);
+		}
+
+		parser.setProgressRange(10, 50, 2, files.size());
+		parser.extractFiles(files);
+
+		assertEquals(Arrays.asList(29, 48), progress);
+	}
+
+	@Test
+	@DisplayName("maps a file to the configured source folder it comes from")
+	void mapsFileToSourceFolder()
+	{
+		SourceFoldersParser parser = newParser();
+
+		assertEquals(baseFolder.toString(), parser.getSourceFolder(baseFolder.resolve("com/example/base/MailBase.java").toFile()));
+		assertEquals(pluginFolder.toString(), parser.getSourceFolder(pluginFolder.resolve("com/example/MailPlugin.java").toFile()));
+		assertNull(parser.getSourceFolder(tempDir.resolve("servoy_base").resolve("Other.java").toFile()));
+		assertEquals(pluginFolder.toString(), parser.getSourceFolder(pluginFolder.resolve("servoy_base/Other.java").toFile()),
+			"a servoy_base folder inside a source folder does not make it a servoy_base source folder");
+	}
+
+	private class TestRequest implements DocumentationGenerationRequest
+	{
+		public Map<String, List<String>> getProjectsAndPackagesToDocument()
+		{
+			return Collections.emptyMap();
+		}
+
+		public Set<String> getCategoryFilter()
+		{
+			return Collections.emptySet();
+		}
+
+		public boolean autopilot()
+		{
+			return false;
+		}
+
+		public boolean tryToMapUndocumentedTypes()
+		{
+			return false;
+		}
+
+		public IPath getOutputFile()
+		{
+			return null;
+		}
+
+		public String getDocumentationGeneratorID()
+		{
+			return null;
+		}
+
+		public boolean confirmResourceOverwrite(IPath path)
+		{
+			return true;
+		}
+
+		public void progressUpdate(int percentDone)
+		{
+			progress.add(Integer.valueOf(percentDone));
+		}
+
+		public void postProcess(MetaModelHolder docs, IPath actualOutputFile)
+		{
+		}
+
+		public void requestHandled(List<IPath> xmlFiles, List<IPath> warningsFiles, List<Throwable> exceptions, boolean canceled)
+		{
+		}
+
+		public boolean cancelRequested()
+		{
+			return false;
+		}
+
+		public boolean importProjects()
+		{
+			return false;
+		}
+	}
+}
@@ -40,21 +40,19 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
-import org.eclipse.jdt.core.IPackageFragmentRoot;
-import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
-import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 
 import com.servoy.eclipse.docgenerator.generators.DefaultDocumentationGenerator;
 import com.servoy.eclipse.docgenerator.generators.IDocumentationGenerator;
 import com.servoy.eclipse.docgenerator.metamodel.DocumentationWarning;
 import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.parser.CompilationUnitsParser;
 import com.servoy.eclipse.docgenerator.parser.JavadocExtractor;
-import com.servoy.eclipse.docgenerator.parser.ServoyPluginDetector;
-import com.servoy.eclipse.docgenerator.parser.SourceCodeTracker;
+import com.servoy.eclipse.docgenerator.parser.PackagePrefixTrie;
+import com.servoy.eclipse.docgenerator.parser.SharedPackagesLayer;
+import com.servoy.eclipse.docgenerator.parser.WorkspaceBuildSession;
 import com.servoy.eclipse.docgenerator.service.DocumentationGenerationRequest;
 import com.servoy.eclipse.docgenerator.service.LogUtil;
 
@@ -77,14 +75,14 @@ public class DocumentationBuilder
 	private final DocumentationGenerationRequest req;
 
 	/**
-	 * The parser that is used for parsing Java code.
+	 * The parser for Java code, with the state shared by all the steps of one build.
 	 */
-	private final ASTParser parser;
+	private final WorkspaceBuildSession session;
 
 	public DocumentationBuilder(DocumentationGenerationRequest req)
 	{
 		this.req = req;
-		parser = ASTParser.newParser(AST.JLS3);
+		session = new WorkspaceBuildSession(ASTParser.newParser(AST.JLS3), req);
 	}
 
 	public void build()
@@ -95,6 +93,7 @@ public class DocumentationBuilder
 		List<IPath> xmlFiles = new ArrayList<IPath>();
 		List<IPath> warningsFiles = new ArrayList<IPath>();
 		List<Throwable> exceptions = new ArrayList<Throwable>();
+		session.open();
 		try
 		{
 			// If autopilot is on, then scan all packages and find all topmost packages that
@@ -112,122 +111,97 @@ public class DocumentationBuilder
 				IWorkspace workspace = ResourcesPlugin.getWorkspace();
 				IWorkspaceRoot root = workspace.getRoot();
 				LogUtil.logger().fine("Workspace root is '" + root.getLocation().toPortableString() + "'.");
-				IProject[] projects = root.getProjects();
+				IProject[] projects = session.getPackageIndex().getProjects();
 				LogUtil.logger().fine("There are " + projects.length + " projects in the workspace.");
 				for (int i = 0; i < projects.length && !req.cancelRequested(); i++)
 				{
 					IProject prj = projects[i];
-					if (prj.isOpen() && prj.isNatureEnabled("org.eclipse.jdt.core.javanature"))
+					if (session.getPackageIndex().isJavaProject(prj.getName()))
 					{
 						if (req.getProjectsAndPackagesToDocument().containsKey(prj.getName()))
 						{
 							Set<String> visitedPackages = new HashSet<String>();
-							List<String> packages = req.getProjectsAndPackagesToDocument().get(prj.getName());
-							IJavaProject jPrj = JavaCore.create(prj);
-							IPackageFragment[] fragments = jPrj.getPackageFragments();
-							for (int j = 0; j < fragments.length && !req.cancelRequested(); j++)
+							PackagePrefixTrie prefixes = new PackagePrefixTrie(req.getProjectsAndPackagesToDocument().get(prj.getName()));
+							// Find the packages with Servoy plugins with a query against the search index, instead of parsing them.
+							Set<String> pluginPackages = session.findPluginPackages(prj);
+							List<IPackageFragment> fragments = session.getPackageIndex().getSourcePackages(prj.getName());
+							for (int j = 0; j < fragments.size() && !req.cancelRequested(); j++)
 							{
-								IPackageFragment pkg = fragments[j];
-								if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE)
+								IPackageFragment pkg = fragments.get(j);
+								String thisPackageName = pkg.getElementName();
+								// check if the current package is listed among the packages
+								// to document for the current project (or is a subpackage of
+								// a listed package)
+								boolean process = prefixes.matches(thisPackageName);
+								if (process)
 								{
-									String thisPackageName = pkg.getElementName();
-									// check if the current package is listed among the packages
-									// to document for the current project (or is a subpackage of
-									// a listed package)
-									boolean process = false;
-									for (String prefix : packages)
+									// First check if the current package has at least one class that is
+									// a Servoy plugin.
+									boolean containsPlugin = pluginPackages != null ? pluginPackages.contains(thisPackageName) : session.detectPlugin(pkg);
+									if (!req.cancelRequested())
 									{
-										if (matchesPackage(thisPackageName, prefix))
+										// If the current package should be documented, then schedule it for processing,
+										// unless it has a parent package that also needs to be processed.
+										if (containsPlugin)
 										{
-											process = true;
-											break;
-										}
-									}
-									if (process)
-									{
-										// First check if the current package has at least one class that is
-										// a Servoy plugin.
-										ServoyPluginDetector pluginDetectorVisitor = new ServoyPluginDetector();
-										ICompilationUnit[] units = pkg.getCompilationUnits();
-										for (int k = 0; k < units.length && !req.cancelRequested() && !pluginDetectorVisitor.containsPlugin(); k++)
-										{
-											ICompilationUnit comp = units[k];
-
-											// We must reconfigure the parser each time, because createAST clears all settings.
-											parser.setResolveBindings(true);
-											parser.setIgnoreMethodBodies(true);
-											parser.setProject(pkg.getJavaProject());
-											parser.setSource(comp);
-
-											// Create the AST and send it to the visitor.
-											ASTNode cu = parser.createAST(null);
-											cu.accept(pluginDetectorVisitor);
-										}
-										if (!req.cancelRequested())
-										{
-											// If the current package should be documented, then schedule it for processing,
-											// unless it has a parent package that also needs to be processed.
-											if (pluginDetectorVisitor.containsPlugin())
+											boolean hasVisitedParent = false;
+											for (String parent : visitedPackages)
 											{
-												boolean hasVisitedParent = false;
-												for (String parent : visitedPackages)
-												{
-													if (thisPackageName.startsWith(parent + "."))
-													{
-														hasVisitedParent = true;
-														break;
-													}
-												}
-												if (!hasVisitedParent)
-												{
-													LogUtil.logger().fine(
-														"Will process package '" + thisPackageName + "' in project '" + prj.getName() +
-															"' because it contains a Servoy plugin and autopilot is on.");
-													visitedPackages.add(thisPackageName);
-													toProcessProjectNames.add(prj.getName());
-													toProcessPackageNames.add(thisPackageName);
-													IPath xmlFile = pkg.getResource().getFullPath().append(EXTENSION_XML_FILE);
-													toProcessXmlFiles.add(xmlFile);
-												}
-												else
+												if (thisPackageName.startsWith(parent + "."))
 												{
-													LogUtil.logger().fine(
-														"Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
-															"' because it contains a Servoy plugin, but a parent package also contains a Servoy plugin.");
+													hasVisitedParent = true;
+													break;
 												}
 											}
+											if (!hasVisitedParent)
+											{
+												LogUtil.logger().fine(
+													"Will process package '" + thisPackageName + "' in project '" + prj.getName() +
+														"' because it contains a Servoy plugin and autopilot is on.");
+												visitedPackages.add(thisPackageName);
+												toProcessProjectNames.add(prj.getName());
+												toProcessPackageNames.add(thisPackageName);
+												IPath xmlFile = pkg.getResource().getFullPath().append(EXTENSION_XML_FILE);
+												toProcessXmlFiles.add(xmlFile);
+											}
 											else
 											{
-												// when documenting plugins with mobile client support, we take non-plugin packages 
-												// as well (may contain needed interfaces)
-												// currently this is hardcoded to take in only servoy_base plugin's project
-												// comment the check below to allow all projects/packages 
-												if (thisPackageName.contains("base.plugins") && prj.getName().contains("servoy_base"))
-												{
-													extraToProcessProjectNames.add(prj.getName());
-													extraToProcessPackageNames.add(thisPackageName);
-													LogUtil.logger().fine(
-														"Will process package '" + thisPackageName + "' in project '" + prj.getName() +
-															"' needed to document plugins with mobile client support.");
-												}
-
-												else
-												{
-													LogUtil.logger().fine(
-														"Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
-															"' because it does not contain a Servoy plugin and autopilot is on.");
-												}
+												LogUtil.logger().fine(
+													"Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
+														"' because it contains a Servoy plugin, but a parent package also contains a Servoy plugin.");
+											}
+										}
+										else
+										{
+											// when documenting plugins with mobile client support, we take non-plugin packages 
+											// as well (may contain needed interfaces)
+											// currently this is hardcoded to take in only servoy_base plugin's project
+											// comment the check below to allow all projects/packages 
+											if (thisPackageName.contains("base.plugins") && prj.getName().contains("servoy_base"))
+											{
+												extraToProcessProjectNames.add(prj.getName());
+												extraToProcessPackageNames.add(thisPackageName);
+												LogUtil.logger().fine(
+													"Will process package '" + thisPackageName + "' in project '" + prj.getName() +
+														"' needed to document plugins with mobile client support.");
 											}
 
+											else
+											{
+												LogUtil.logger().fine(
+													"Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
+														"' because it does not contain a Servoy plugin and autopilot is on.");
+											}
 										}
-									}
-									else
-									{
-										LogUtil.logger().fine(
-											"Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
-												"' because it was not listed among the packages to document.");
+
 									}
 								}
+								else
+								{
+									LogUtil.logger().fine(
+										"Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
+											"' because it was not listed among the packages to document.");
+								}
 							}
 						}
 						else
@@ -240,10 +214,18 @@ public class DocumentationBuilder
 						LogUtil.logger().fine("Skipping roject '" + prj.getName() + "' because it is not a Java project.");
 					}
 				}
+				// Only the scheduled packages (with their subpackages) and the extra ones get parsed, drop the types extracted from all the others.
+				List<String> usedPackageNames = new ArrayList<String>(toProcessPackageNames);
+				usedPackageNames.addAll(extraToProcessPackageNames);
+				session.retainPreExtracted(usedPackageNames);
 				req.progressUpdate(0);
 
 				if (toProcessProjectNames.size() > 0)
 				{
+					// The extra projects/packages that may be needed when documenting plugins with mobile client support
+					// are the same for all plugins, so they are parsed only once and shared.
+					SharedPackagesLayer sharedLayer = session.createSharedLayer(extraToProcessProjectNames, extraToProcessPackageNames);
+
 					// Process all scheduled packages.
 					int delta = 100 / toProcessProjectNames.size();
 					for (int i = 0; i < toProcessProjectNames.size() && !req.cancelRequested(); i++)
@@ -261,27 +243,9 @@ public class DocumentationBuilder
 						int startPercent = i * delta;
 						int endPercent = startPercent + delta - 1;
 
-						// this is to include any extra projects/packages that may be needed when documenting plugins with mobile client support 
-						if (extraToProcessProjectNames.size() > 0)
-						{
-							for (int x = 0; x < extraToProcessProjectNames.size() && !req.cancelRequested(); x++)
-							{
-								projectName = extraToProcessProjectNames.get(x);
-								packageName = extraToProcessPackageNames.get(x);
-
-								Object packages4project = packagesToVisit.get(projectName);
-								if (packages4project != null) listWithThisPackage = (ArrayList<String>)packages4project;
-								else listWithThisPackage = new ArrayList<String>();
-
-								listWithThisPackage.add(packageName);
-
-								packagesToVisit.put(projectName, listWithThisPackage);
-							}
-						}
-
 						try
 						{
-							processRoot(packagesToVisit, xmlFile, warningsFile, startPercent, endPercent, xmlFiles, warningsFiles);
+							processRoot(packagesToVisit, sharedLayer, xmlFile, warningsFile, startPercent, endPercent, xmlFiles, warningsFiles);
 						}
 						catch (Exception e)
 						{
@@ -318,6 +282,7 @@ public class DocumentationBuilder
 			LogUtil.logger().log(Level.SEVERE, "Exception while generating documentation.", e);
 			exceptions.add(e);
 		}
+		session.close();
 		req.requestHandled(xmlFiles, warningsFiles, exceptions, req.cancelRequested());
 
 		Date finalEnd = Calendar.getInstance().getTime();
@@ -330,6 +295,15 @@ public class DocumentationBuilder
 	 */
 	public void processRoot(Map<String, List<String>> packagesByProject, IPath xmlFile, IPath warningsFile, int startPercent, int endPercent,
 		List<IPath> xmlFiles, List<IPath> warningsFiles) throws Exception
+	{
+		processRoot(packagesByProject, null, xmlFile, warningsFile, startPercent, endPercent, xmlFiles, warningsFiles);
+	}
+
+	/**
+	 * Same as above, but the types parsed from the given packages are laid over a copy of the types from the shared layer, if any.
+	 */
+	public void processRoot(Map<String, List<String>> packagesByProject, SharedPackagesLayer sharedLayer, IPath xmlFile, IPath warningsFile,
+		int startPercent, int endPercent, List<IPath> xmlFiles, List<IPath> warningsFiles) throws Exception
 	{
 		JavadocExtractor javadocExtractorVisitor = new JavadocExtractor();
 
@@ -347,127 +321,28 @@ public class DocumentationBuilder
 			}
 			LogUtil.logger().fine(sb.toString());
 		}
-		int total = 0;
-		IWorkspace workspace = ResourcesPlugin.getWorkspace();
-		IWorkspaceRoot root = workspace.getRoot();
-		LogUtil.logger().fine("Workspace root is '" + root.getLocation().toPortableString() + "'.");
-		IProject[] projects = root.getProjects();
-		LogUtil.logger().fine("There are " + projects.length + " projects in the workspace.");
-		LogUtil.logger().fine("Counting the total number of compilation units.");
-		List<IPackageFragment> selectedPackages = new ArrayList<IPackageFragment>();
-		for (int i = 0; i < projects.length && !req.cancelRequested(); i++)
-		{
-			IProject prj = projects[i];
-			if (prj.isOpen() && prj.isNatureEnabled("org.eclipse.jdt.core.javanature"))
-			{
-				if (packagesByProject.containsKey(prj.getName()))
-				{
-					List<String> packages = packagesByProject.get(prj.getName());
-					IJavaProject jPrj = JavaCore.create(prj);
-					int prjFiles = 0;
-					IPackageFragment[] fragments = jPrj.getPackageFragments();
-					for (int j = 0; j < fragments.length && !req.cancelRequested(); j++)
-					{
-						IPackageFragment pkg = fragments[j];
-						if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE)
-						{
-							String thisPackageName = pkg.getElementName();
-							String usedPrefix = null;
-							// Check if the package is listed, or if it is a subpackage of a listed package.
-							boolean process = false;
-							for (String prefix : packages)
-							{
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		List<IPackageFragment> selectedPackages = session.selectPackages(packagesByProject);
 
-								if (matchesPackage(thisPackageName, prefix))
-								{
-									process = true;
-									usedPrefix = prefix;
-									break;
-								}
-							}
-							if (process)
-							{
-								// Select this package for later processing.
-								int pkgFiles = pkg.getCompilationUnits().length;
-								selectedPackages.add(pkg);
-								prjFiles += pkgFiles;
-								LogUtil.logger().fine(
-									"Package '" + pkg.getElementName() + "' in project '" + prj.getName() + "' will be documented with " + pkgFiles +
-										" compilation units. The prefix used was '" + usedPrefix + "'.");
-							}
-							else
-							{
-								LogUtil.logger().fine(
-									"Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
-										"' because it was not listed among the packages to document.");
-							}
-						}
-					}
-					LogUtil.logger().fine("Project '" + prj.getName() + "' will be documented with " + prjFiles + " compilation units.");
-					total += prjFiles;
-				}
-				else
-				{
-					LogUtil.logger().fine("Skipping project '" + prj.getName() + "' because it is not listed among the projects to document.");
-				}
-			}
-			else
-			{
-				LogUtil.logger().fine("Skipping roject '" + prj.getName() + "' because it is not a Java project.");
-			}
-		}
-		LogUtil.logger().fine("Total number of compilation units to parse is " + total + ".");
+		// Parse the compilation units from the selected packages, in one batch per project.
+		CompilationUnitsParser unitsParser = session.newUnitsParser();
+		List<ICompilationUnit> units = unitsParser.collectUnits(selectedPackages);
+		LogUtil.logger().fine("Total number of compilation units to parse is " + units.size() + ".");
 
-		int lastPercent = startPercent;
 		int reserve = 2; // 2% for writing the XML
-		int visited = 0;
+		unitsParser.setProgressRange(startPercent, endPercent, reserve, units.size());
 		req.progressUpdate(startPercent);
 
-		// Parse each compilation unit from the selected packages.
-		for (int i = 0; i < selectedPackages.size() && !req.cancelRequested(); i++)
-		{
-			IPackageFragment pkg = selectedPackages.get(i);
-			LogUtil.logger().fine("Parsing compilation units from package '" + pkg.getElementName() + "'.");
-			for (int k = 0; k < pkg.getCompilationUnits().length && !req.cancelRequested(); k++)
-			{
-				ICompilationUnit comp = pkg.getCompilationUnits()[k];
-
-				// We must reconfigure the parser each time, because createAST clears all settings.
-				parser.setResolveBindings(true);
-				parser.setIgnoreMethodBodies(true);
-				parser.setProject(pkg.getJavaProject());
-				parser.setSource(comp);
-
-				String allCode = comp.getSource();
-				if (allCode != null)
-				{
-					SourceCodeTracker tracker = new SourceCodeTracker(allCode);
-					javadocExtractorVisitor.setSourceCodeTracker(tracker);
-				}
-				else
-				{
-					javadocExtractorVisitor.setSourceCodeTracker(null);
-				}
-
-				// Create the AST and send it to the visitor.
-				ASTNode cu = parser.createAST(null);
-				cu.accept(javadocExtractorVisitor);
-
-				// Report progress. Make sure we don't output the same percentage more than once.
-				visited += 1;
-				int newPercent = startPercent + (endPercent - startPercent - reserve) * visited / total;
-				if (newPercent > lastPercent)
-				{
-					req.progressUpdate(newPercent);
-					lastPercent = newPercent;
-				}
-			}
-		}
+		unitsParser.parseUnits(units, javadocExtractorVisitor);
 
 		if (!req.cancelRequested())
 		{
 			// Generate the documentation XML and the warnings file.
 			MetaModelHolder holder = javadocExtractorVisitor.getRawDataHolder();
+			if (sharedLayer != null)
+			{
+				holder = sharedLayer.overlay(holder);
+			}
 
 			Set<DocumentationWarning> allWarnings = new TreeSet<DocumentationWarning>();
 
@@ -540,16 +415,6 @@ public class DocumentationBuilder
 		}
 	}
 
-	/**
-	 * @param thisPackageName
-	 * @param prefix
-	 * @return
-	 */
-	private boolean matchesPackage(String packageName, String prefix)
-	{
-		return packageName.equals(prefix) || packageName.startsWith(prefix + '.');
-	}
-
 	private boolean writeFile(IWorkspaceRoot root, IPath path, InputStream content) throws CoreException
 	{
 		IFile f = root.getFile(path);
@@ -23,21 +23,32 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Level;
 
+import org.eclipse.core.resources.IBuildConfiguration;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceDescription;
 import org.eclipse.core.resources.IWorkspaceRoot;
@@ -51,12 +62,9 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
-import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
-import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.m2e.core.MavenPlugin;
 import org.eclipse.m2e.jdt.MavenJdtPlugin;
@@ -64,11 +72,18 @@ import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleException;
 
 import com.servoy.eclipse.docgenerator.Activator;
+import com.servoy.eclipse.docgenerator.metamodel.AnnotationPool;
 import com.servoy.eclipse.docgenerator.metamodel.DocumentationWarning;
 import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.TypeNamePool;
+import com.servoy.eclipse.docgenerator.parser.CompilationUnitsParser;
 import com.servoy.eclipse.docgenerator.parser.JavadocExtractor;
+import com.servoy.eclipse.docgenerator.parser.PackagePrefixTrie;
 import com.servoy.eclipse.docgenerator.parser.ServoyPluginDetector;
-import com.servoy.eclipse.docgenerator.parser.SourceCodeTracker;
+import com.servoy.eclipse.docgenerator.parser.SharedPackagesLayer;
+import com.servoy.eclipse.docgenerator.parser.SourceFoldersParser;
+import com.servoy.eclipse.docgenerator.parser.WorkspaceBuildSession;
 import com.servoy.eclipse.docgenerator.service.DocumentationGenerationRequest;
 import com.servoy.eclipse.docgenerator.service.LogUtil;
 
@@ -83,7 +98,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 
 	private static enum ScanState
 	{
-		None, BundleFolders, Project, Packages, Workspace, OutputFile, DocGeneratorId, Categories, ImportProjects
+		None, BundleFolders, Project, Packages, Workspace, OutputFile, DocGeneratorId, Categories, ImportProjects, Threads, SourceFolders, Classpath, SourceLevel, Encoding
 	}
 
 	// Command-line options.
@@ -94,6 +109,13 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 	private static final String MAP_UNDOCUMENTED_TYPES = "--map-undocumented-types";
 	private static final String CATEGORIES = "--categories";
 	private static final String IMPORT_PROJECTS = "--import-projects"; //if present, the projects are imported into the workspace
+	private static final String THREADS = "--threads"; //number of parser threads, 0 means one per available processor
+	private static final String INCREMENTAL = "--incremental"; //if present, the types extracted from unchanged compilation units are read from a cache instead of being parsed again
+	private static final String SOURCE_FOLDERS = "--source-folders"; //if present, the sources are read from these folders, without using the workspace
+	private static final String CLASSPATH = "--classpath"; //jars and class folders needed to resolve the sources from the source folders
+	private static final String SOURCE_LEVEL = "--source-level"; //Java version of the sources from the source folders (source and compliance level), 21 if not given
+	private static final String ENCODING = "--encoding"; //encoding of the sources from the source folders, UTF-8 if not given
+	private static final String LIGHTWEIGHT_JAVADOCS = "--lightweight-javadocs"; //if present, only the Javadocs that may be documented are read, without the JDT doc comment DOM
 
 	/**
 	 * The name of the XML file which holds documentation and other Servoy extension related info.
@@ -101,8 +123,12 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 	public static final String EXTENSION_XML_FILE = "servoy-extension.xml";
 
 	private DocumentationGenerationRequest req;
-	private ASTParser parser;
+	private WorkspaceBuildSession session; // the parser and the state shared by all the steps of one build from the workspace
 	protected IWorkspaceRoot workspaceRoot;
+	private final List<String> sourceFolders = new ArrayList<String>();
+	private final List<String> classpath = new ArrayList<String>();
+	private String sourceLevel = JavaCore.VERSION_21;
+	private Charset sourceEncoding = StandardCharsets.UTF_8;
 
 	@Override
 	public Object start(IApplicationContext context) throws Exception
@@ -134,17 +160,24 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 		MavenJdtPlugin.getDefault();
 
 		String[] args = (String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
-		parser = ASTParser.newParser(AST.JLS3);
 		req = parseArgs(args);
+		session = new WorkspaceBuildSession(ASTParser.newParser(AST.JLS3), req);
 
 		workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		if (!sourceFolders.isEmpty())
+		{
+			// No projects are imported and nothing is built, the sources are parsed directly.
+			buildFromSourceFolders();
+			return IApplication.EXIT_OK;
+		}
+
 		List<IProject> importedProjects = new ArrayList<IProject>();
 		List<IProject> existingClosedProjects = new ArrayList<IProject>();
 		if (req.importProjects())
 		{
 			File wr = workspaceRoot.getLocation().toFile();
 			importExistingAndOpenClosedProjects(wr, importedProjects, existingClosedProjects);
-			refreshProjects();
+			refreshProjects(importedProjects);
 		}
 
 		build();
@@ -170,6 +203,9 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 		boolean isAutopilot = false;
 		boolean importProjects = false;
 		boolean doMapUndocumentedTypes = false;
+		int threads = 1;
+		boolean incremental = false;
+		boolean lightweightJavadocs = false;
 		Set<String> bundleFolders = new HashSet<String>();
 		for (String arg : args)
 		{
@@ -201,6 +237,34 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 			{
 				doMapUndocumentedTypes = true;
 			}
+			else if (THREADS.equals(arg))
+			{
+				state = ScanState.Threads;
+			}
+			else if (INCREMENTAL.equals(arg))
+			{
+				incremental = true;
+			}
+			else if (LIGHTWEIGHT_JAVADOCS.equals(arg))
+			{
+				lightweightJavadocs = true;
+			}
+			else if (SOURCE_FOLDERS.equals(arg))
+			{
+				state = ScanState.SourceFolders;
+			}
+			else if (CLASSPATH.equals(arg))
+			{
+				state = ScanState.Classpath;
+			}
+			else if (SOURCE_LEVEL.equals(arg))
+			{
+				state = ScanState.SourceLevel;
+			}
+			else if (ENCODING.equals(arg))
+			{
+				state = ScanState.Encoding;
+			}
 			else
 			{
 				if (state == ScanState.Project)
@@ -232,6 +296,43 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 				{
 					importProjects = Boolean.parseBoolean(arg);
 				}
+				else if (state == ScanState.Threads)
+				{
+					try
+					{
+						threads = Integer.parseInt(arg);
+						if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+					}
+					catch (NumberFormatException e)
+					{
+						LogUtil.logger().log(Level.WARNING, "Invalid number of threads '" + arg + "', parsing on a single thread.");
+					}
+					state = ScanState.None;
+				}
+				else if (state == ScanState.SourceLevel)
+				{
+					if (JavaCore.isSupportedJavaVersion(arg))
+					{
+						sourceLevel = arg;
+					}
+					else
+					{
+						LogUtil.logger().log(Level.WARNING, "Unsupported source level '" + arg + "', parsing the sources as Java " + sourceLevel + ".");
+					}
+					state = ScanState.None;
+				}
+				else if (state == ScanState.Encoding)
+				{
+					try
+					{
+						sourceEncoding = Charset.forName(arg);
+					}
+					catch (IllegalArgumentException e)
+					{
+						LogUtil.logger().log(Level.WARNING, "Unsupported encoding '" + arg + "', reading the sources as " + sourceEncoding.name() + ".");
+					}
+					state = ScanState.None;
+				}
 				else
 				{
 					File f = new File(arg);
@@ -250,6 +351,14 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 						{
 							outputFile = canon;
 						}
+						else if (state == ScanState.SourceFolders)
+						{
+							sourceFolders.add(canon);
+						}
+						else if (state == ScanState.Classpath)
+						{
+							classpath.add(canon);
+						}
 					}
 					catch (IOException e)
 					{
@@ -263,14 +372,14 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 			LogUtil.logger().log(Level.SEVERE, "Incorrect arguments. The output file is null and the autopilot flag is missing.");
 			System.exit(1);
 		}
-		if (workspace == null || projectsAndPackages.isEmpty())
+		if ((workspace == null && sourceFolders.isEmpty()) || projectsAndPackages.isEmpty())
 		{
 			LogUtil.logger().log(Level.SEVERE, "Incorrect arguments. The output file is null and the autopilot flag is missing.");
 			System.exit(1);
 		}
 
 		return createDocumentationGenerationRequest(projectsAndPackages, isAutopilot, doMapUndocumentedTypes, outputFile, categories, importProjects,
-			workspace);
+			workspace, threads, incremental, lightweightJavadocs);
 	}
 
 
@@ -280,7 +389,8 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 	 * @return
 	 */
 	private DocumentationGenerationRequest createDocumentationGenerationRequest(final Map<String, List<String>> projectsAndPackages, final boolean isAutopilot,
-		final boolean mapUndocumentedTypes, final String outputFile, final Set<String> categories, final boolean importProjects, final String workspace)
+		final boolean mapUndocumentedTypes, final String outputFile, final Set<String> categories, final boolean importProjects, final String workspace,
+		final int threads, final boolean incremental, final boolean lightweightJavadocs)
 	{
 		DocumentationGenerationRequest request = new DocumentationGenerationRequest()
 		{
@@ -317,7 +427,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 			public boolean confirmResourceOverwrite(IPath path)
 			{
 				// Just accept overwriting, but print a message to stdout.
-				LogUtil.logger().info("The following resource will be overwritten: '" + workspaceRoot.getFile(path).getLocation() + "'.");
+				LogUtil.logger().info("The following resource will be overwritten: '" + getLocation(path) + "'.");
 				return true;
 			}
 
@@ -331,7 +441,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 				if (actualOutputFile != null)
 				{
 					IPath sourceCodeReportPath = actualOutputFile.removeFileExtension().addFileExtension("html");
-					SampleCodeAnalyzer analyzer = new SampleCodeAnalyzer(docs, this, sourceCodeReportPath);
+					SampleCodeAnalyzer analyzer = new SampleCodeAnalyzer(docs, this, sourceCodeReportPath, !sourceFolders.isEmpty());
 					analyzer.analyzeAndReport();
 				}
 				DocBeautifier db = new DocBeautifier(docs);
@@ -347,7 +457,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 					message.append("The following XML files were generated:\n");
 					for (IPath p : xmlFiles)
 					{
-						message.append(workspaceRoot.getFile(p).getLocation()).append("\n");
+						message.append(getLocation(p)).append("\n");
 					}
 				}
 				else
@@ -359,7 +469,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 					message.append("The following warnings files were generated:\n");
 					for (IPath p : warningsFiles)
 					{
-						message.append(workspaceRoot.getFile(p).getLocation()).append("\n");
+						message.append(getLocation(p)).append("\n");
 					}
 				}
 				else
@@ -388,10 +498,36 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 			{
 				return importProjects;
 			}
+
+			@Override
+			public int getParallelism()
+			{
+				return threads;
+			}
+
+			@Override
+			public boolean useExtractionCache()
+			{
+				return incremental;
+			}
+
+			@Override
+			public boolean useLightweightJavadocs()
+			{
+				return lightweightJavadocs;
+			}
 		};
 		return request;
 	}
 
+	/**
+	 * The location of the given output file on disk. When reading the source folders directly, the output paths are already file system paths.
+	 */
+	private IPath getLocation(IPath path)
+	{
+		return sourceFolders.isEmpty() ? workspaceRoot.getFile(path).getLocation() : path;
+	}
+
 	@Override
 	public void stop()
 	{
@@ -405,6 +541,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 		List<IPath> xmlFiles = new ArrayList<IPath>();
 		List<IPath> warningsFiles = new ArrayList<IPath>();
 		List<Throwable> exceptions = new ArrayList<Throwable>();
+		session.open();
 		try
 		{
 			// If autopilot is on, then scan all packages and find all topmost packages that
@@ -422,117 +559,91 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 				IWorkspace workspace = ResourcesPlugin.getWorkspace();
 				IWorkspaceRoot root = workspace.getRoot();
 				LogUtil.logger().fine("Workspace root is '" + root.getLocation().toPortableString() + "'.");
-				IProject[] projects = root.getProjects();
+				IProject[] projects = session.getPackageIndex().getProjects();
 				LogUtil.logger().fine("There are " + projects.length + " projects in the workspace.");
 				for (int i = 0; i < projects.length && !req.cancelRequested(); i++)
 				{
 					IProject prj = projects[i];
-					if (prj.isOpen() && prj.isNatureEnabled("org.eclipse.jdt.core.javanature"))
+					if (session.getPackageIndex().isJavaProject(prj.getName()))
 					{
 						if (req.getProjectsAndPackagesToDocument().containsKey(prj.getName()))
 						{
 							Set<String> visitedPackages = new HashSet<String>();
-							List<String> packages = req.getProjectsAndPackagesToDocument().get(prj.getName());
-							IJavaProject jPrj = JavaCore.create(prj);
-							IPackageFragment[] fragments = jPrj.getPackageFragments();
-							for (int j = 0; j < fragments.length && !req.cancelRequested(); j++)
+							PackagePrefixTrie prefixes = new PackagePrefixTrie(req.getProjectsAndPackagesToDocument().get(prj.getName()));
+							// Find the packages with Servoy plugins with a query against the search index, instead of parsing them.
+							Set<String> pluginPackages = session.findPluginPackages(prj);
+							List<IPackageFragment> fragments = session.getPackageIndex().getSourcePackages(prj.getName());
+							for (int j = 0; j < fragments.size() && !req.cancelRequested(); j++)
 							{
-								IPackageFragment pkg = fragments[j];
-								if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE)
+								IPackageFragment pkg = fragments.get(j);
+								String thisPackageName = pkg.getElementName();
+								// check if the current package is listed among the packages
+								// to document for the current project (or is a subpackage of
+								// a listed package)
+								boolean process = prefixes.matches(thisPackageName);
+								if (process)
 								{
-									String thisPackageName = pkg.getElementName();
-									// check if the current package is listed among the packages
-									// to document for the current project (or is a subpackage of
-									// a listed package)
-									boolean process = false;
-									for (String prefix : packages)
+									// First check if the current package has at least one class that is
+									// a Servoy plugin.
+									boolean containsPlugin = pluginPackages != null ? pluginPackages.contains(thisPackageName) : session.detectPlugin(pkg);
+									if (!req.cancelRequested())
 									{
-										if (matchesPackage(thisPackageName, prefix))
+										// If the current package should be documented, then schedule it for processing,
+										// unless it has a parent package that also needs to be processed.
+										if (containsPlugin)
 										{
-											process = true;
-											break;
-										}
-									}
-									if (process)
-									{
-										// First check if the current package has at least one class that is
-										// a Servoy plugin.
-										ServoyPluginDetector pluginDetectorVisitor = new ServoyPluginDetector();
-										ICompilationUnit[] units = pkg.getCompilationUnits();
-										for (int k = 0; k < units.length && !req.cancelRequested() && !pluginDetectorVisitor.containsPlugin(); k++)
-										{
-											ICompilationUnit comp = units[k];
-
-											// We must reconfigure the parser each time, because createAST clears all settings.
-											parser.setResolveBindings(true);
-											parser.setIgnoreMethodBodies(true);
-											parser.setProject(pkg.getJavaProject());
-											parser.setSource(comp);
-											parser.setBindingsRecovery(true);
-
-											// Create the AST and send it to the visitor.
-											ASTNode cu = parser.createAST(null);
-											cu.accept(pluginDetectorVisitor);
-										}
-										if (!req.cancelRequested())
-										{
-											// If the current package should be documented, then schedule it for processing,
-											// unless it has a parent package that also needs to be processed.
-											if (pluginDetectorVisitor.containsPlugin())
+											boolean hasVisitedParent = false;
+											for (String parent : visitedPackages)
 											{
-												boolean hasVisitedParent = false;
-												for (String parent : visitedPackages)
-												{
-													if (thisPackageName.startsWith(parent + "."))
-													{
-														hasVisitedParent = true;
-														break;
-													}
-												}
-												if (!hasVisitedParent)
-												{
-													LogUtil.logger().fine("Will process package '" + thisPackageName + "' in project '" + prj.getName() +
-														"' because it contains a Servoy plugin and autopilot is on.");
-													visitedPackages.add(thisPackageName);
-													toProcessProjectNames.add(prj.getName());
-													toProcessPackageNames.add(thisPackageName);
-													IPath xmlFile = pkg.getResource().getFullPath().append(EXTENSION_XML_FILE);
-													toProcessXmlFiles.add(xmlFile);
-												}
-												else
+												if (thisPackageName.startsWith(parent + "."))
 												{
-													LogUtil.logger().fine("Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
-														"' because it contains a Servoy plugin, but a parent package also contains a Servoy plugin.");
+													hasVisitedParent = true;
+													break;
 												}
 											}
+											if (!hasVisitedParent)
+											{
+												LogUtil.logger().fine("Will process package '" + thisPackageName + "' in project '" + prj.getName() +
+													"' because it contains a Servoy plugin and autopilot is on.");
+												visitedPackages.add(thisPackageName);
+												toProcessProjectNames.add(prj.getName());
+												toProcessPackageNames.add(thisPackageName);
+												IPath xmlFile = pkg.getResource().getFullPath().append(EXTENSION_XML_FILE);
+												toProcessXmlFiles.add(xmlFile);
+											}
 											else
 											{
-												// when documenting plugins with mobile client support, we take non-plugin packages
-												// as well (may contain needed interfaces)
-												// currently this is hardcoded to take in only servoy_base plugin's project
-												// comment the check below to allow all projects/packages
-												if (thisPackageName.contains("base.plugins") && prj.getName().contains("servoy_base"))
-												{
-													extraToProcessProjectNames.add(prj.getName());
-													extraToProcessPackageNames.add(thisPackageName);
-													LogUtil.logger().fine("Will process package '" + thisPackageName + "' in project '" + prj.getName() +
-														"' needed to document plugins with mobile client support.");
-												}
-
-												else
-												{
-													LogUtil.logger().fine("Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
-														"' because it does not contain a Servoy plugin and autopilot is on.");
-												}
+												LogUtil.logger().fine("Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
+													"' because it contains a Servoy plugin, but a parent package also contains a Servoy plugin.");
+											}
+										}
+										else
+										{
+											// when documenting plugins with mobile client support, we take non-plugin packages
+											// as well (may contain needed interfaces)
+											// currently this is hardcoded to take in only servoy_base plugin's project
+											// comment the check below to allow all projects/packages
+											if (thisPackageName.contains("base.plugins") && prj.getName().contains("servoy_base"))
+											{
+												extraToProcessProjectNames.add(prj.getName());
+												extraToProcessPackageNames.add(thisPackageName);
+												LogUtil.logger().fine("Will process package '" + thisPackageName + "' in project '" + prj.getName() +
+													"' needed to document plugins with mobile client support.");
 											}
 
+											else
+											{
+												LogUtil.logger().fine("Skipping package '" + thisPackageName + "' in project '" + prj.getName() +
+													"' because it does not contain a Servoy plugin and autopilot is on.");
+											}
 										}
+
 									}
-									else
-									{
-										LogUtil.logger().fine("Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
-											"' because it was not listed among the packages to document.");
-									}
+								}
+								else
+								{
+									LogUtil.logger().fine("Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
+										"' because it was not listed among the packages to document.");
 								}
 							}
 						}
@@ -546,10 +657,18 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 						LogUtil.logger().fine("Skipping roject '" + prj.getName() + "' because it is not a Java project.");
 					}
 				}
+				// Only the scheduled packages (with their subpackages) and the extra ones get parsed, drop the types extracted from all the others.
+				List<String> usedPackageNames = new ArrayList<String>(toProcessPackageNames);
+				usedPackageNames.addAll(extraToProcessPackageNames);
+				session.retainPreExtracted(usedPackageNames);
 				req.progressUpdate(0);
 
 				if (toProcessProjectNames.size() > 0)
 				{
+					// The extra projects/packages that may be needed when documenting plugins with mobile client support
+					// are the same for all plugins, so they are parsed only once and shared.
+					SharedPackagesLayer sharedLayer = session.createSharedLayer(extraToProcessProjectNames, extraToProcessPackageNames);
+
 					// Process all scheduled packages.
 					int delta = 100 / toProcessProjectNames.size();
 					for (int i = 0; i < toProcessProjectNames.size() && !req.cancelRequested(); i++)
@@ -567,27 +686,9 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 						int startPercent = i * delta;
 						int endPercent = startPercent + delta - 1;
 
-						// this is to include any extra projects/packages that may be needed when documenting plugins with mobile client support
-						if (extraToProcessProjectNames.size() > 0)
-						{
-							for (int x = 0; x < extraToProcessProjectNames.size() && !req.cancelRequested(); x++)
-							{
-								projectName = extraToProcessProjectNames.get(x);
-								packageName = extraToProcessPackageNames.get(x);
-
-								Object packages4project = packagesToVisit.get(projectName);
-								if (packages4project != null) listWithThisPackage = (ArrayList<String>)packages4project;
-								else listWithThisPackage = new ArrayList<String>();
-
-								listWithThisPackage.add(packageName);
-
-								packagesToVisit.put(projectName, listWithThisPackage);
-							}
-						}
-
 						try
 						{
-							processRoot(packagesToVisit, xmlFile, warningsFile, startPercent, endPercent, xmlFiles, warningsFiles);
+							processRoot(packagesToVisit, sharedLayer, xmlFile, warningsFile, startPercent, endPercent, xmlFiles, warningsFiles);
 						}
 						catch (Exception e)
 						{
@@ -624,6 +725,7 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 			LogUtil.logger().log(Level.SEVERE, "Exception while generating documentation.", e);
 			exceptions.add(e);
 		}
+		session.close();
 		req.requestHandled(xmlFiles, warningsFiles, exceptions, req.cancelRequested());
 
 		Date finalEnd = Calendar.getInstance().getTime();
@@ -631,232 +733,316 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 	}
 
 	/**
-	 * Given a Java project and a list of packages inside the project, this method builds a documentation XML for each
-	 * listed package.
+	 * Builds the documentation straight from the source folders given on the command line. Nothing is imported into
+	 * the workspace and nothing is built, the sources are resolved against the classpath given on the command line.
+	 * The project names are not relevant in this mode, all listed packages are searched for in all source folders.
 	 */
-	public void processRoot(Map<String, List<String>> packagesByProject, IPath xmlFile, IPath warningsFile, int startPercent, int endPercent,
-		List<IPath> xmlFiles, List<IPath> warningsFiles) throws Exception
+	public void buildFromSourceFolders()
 	{
-		JavadocExtractor javadocExtractorVisitor = new JavadocExtractor();
+		Date start = Calendar.getInstance().getTime();
+		LogUtil.logger().fine("Documentation build from source folders started at " + start.toString() + ".");
 
-		if (LogUtil.logger().isLoggable(Level.FINE))
+		List<IPath> xmlFiles = new ArrayList<IPath>();
+		List<IPath> warningsFiles = new ArrayList<IPath>();
+		List<Throwable> exceptions = new ArrayList<Throwable>();
+		TypeNamePool typeNamePool = new TypeNamePool();
+		AnnotationPool annotationPool = new AnnotationPool();
+		try
 		{
-			StringBuffer sb = new StringBuffer();
-			sb.append("Processing root with ").append(packagesByProject.size()).append(" projects:\n");
-			for (String prjName : packagesByProject.keySet())
+			if (req.useExtractionCache())
 			{
-				List<String> packagesNames = packagesByProject.get(prjName);
-				sb.append(prjName).append(":");
-				for (String packName : packagesNames)
-					sb.append(" ").append(packName);
-				sb.append("\n");
+				LogUtil.logger().info("The extraction cache is not used when reading the source folders directly, all sources will be parsed.");
 			}
-			LogUtil.logger().fine(sb.toString());
-		}
-		int total = 0;
-		IWorkspace workspace = ResourcesPlugin.getWorkspace();
-		IWorkspaceRoot root = workspace.getRoot();
-		LogUtil.logger().fine("Workspace root is '" + root.getLocation().toPortableString() + "'.");
-		IProject[] projects = root.getProjects();
-		LogUtil.logger().fine("There are " + projects.length + " projects in the workspace.");
-		LogUtil.logger().fine("Counting the total number of compilation units.");
-		List<IPackageFragment> selectedPackages = new ArrayList<IPackageFragment>();
-		for (int i = 0; i < projects.length && !req.cancelRequested(); i++)
-		{
-			IProject prj = projects[i];
-			if (prj.isOpen() && prj.isNatureEnabled("org.eclipse.jdt.core.javanature"))
+
+			// the JLS3 parser of the workspace mode cannot represent records, sealed types and the other newer syntax
+			SourceFoldersParser sourceParser = new SourceFoldersParser(ASTParser.newParser(AST.getJLSLatest()), req, sourceFolders, classpath);
+			sourceParser.setLightweightJavadocs(req.useLightweightJavadocs());
+			sourceParser.setSourceLevel(sourceLevel);
+			sourceParser.setEncoding(sourceEncoding);
+			sourceParser.setTypeNamePool(typeNamePool);
+			sourceParser.setAnnotationPool(annotationPool);
+			Map<String, List<File>> filesByPackage = sourceParser.collectSourceFiles();
+			List<String> listedPackages = new ArrayList<String>();
+			for (List<String> packages : req.getProjectsAndPackagesToDocument().values())
+			{
+				listedPackages.addAll(packages);
+			}
+			PackagePrefixTrie prefixes = new PackagePrefixTrie(listedPackages);
+			Map<String, List<File>> selectedPackages = new LinkedHashMap<String, List<File>>();
+			List<File> selectedFiles = new ArrayList<File>();
+			for (Map.Entry<String, List<File>> entry : filesByPackage.entrySet())
 			{
-				if (packagesByProject.containsKey(prj.getName()))
+				if (prefixes.matches(entry.getKey()))
 				{
-					List<String> packages = packagesByProject.get(prj.getName());
-					IJavaProject jPrj = JavaCore.create(prj);
-					int prjFiles = 0;
-					IPackageFragment[] fragments = jPrj.getPackageFragments();
-					for (int j = 0; j < fragments.length && !req.cancelRequested(); j++)
+					selectedPackages.put(entry.getKey(), entry.getValue());
+					selectedFiles.addAll(entry.getValue());
+				}
+				else
+				{
+					LogUtil.logger().fine("Skipping package '" + entry.getKey() + "' because it was not listed among the packages to document.");
+				}
+			}
+			LogUtil.logger().fine("Total number of source files to parse is " + selectedFiles.size() + ".");
+			req.progressUpdate(0);
+
+			if (req.autopilot())
+			{
+				// Parse everything once, then find the topmost packages that contain a Servoy plugin, the same as build() does.
+				// The parsing takes the first half of the progress, the generation of the XMLs the second half.
+				int parsedPercent = 50;
+				sourceParser.setProgressRange(0, parsedPercent, 0, selectedFiles.size());
+				Map<String, MetaModelHolder> extracted = sourceParser.extractFiles(selectedFiles);
+				List<String> pluginPackages = new ArrayList<String>();
+				MetaModelHolder sharedTypes = new MetaModelHolder();
+				for (Map.Entry<String, List<File>> entry : selectedPackages.entrySet())
+				{
+					String thisPackageName = entry.getKey();
+					if (containsPlugin(entry.getValue(), extracted))
 					{
-						IPackageFragment pkg = fragments[j];
-						if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE)
+						if (!new PackagePrefixTrie(pluginPackages).matches(thisPackageName))
 						{
-							String thisPackageName = pkg.getElementName();
-							String usedPrefix = null;
-							// Check if the package is listed, or if it is a subpackage of a listed package.
-							boolean process = false;
-							for (String prefix : packages)
-							{
+							LogUtil.logger().fine("Will process package '" + thisPackageName + "' because it contains a Servoy plugin and autopilot is on.");
+							pluginPackages.add(thisPackageName);
+						}
+					}
+					else if (thisPackageName.contains("base.plugins") && isServoyBaseFolder(sourceParser.getSourceFolder(entry.getValue().get(0))))
+					{
+						// needed to document plugins with mobile client support, see build()
+						for (File f : entry.getValue())
+						{
+							sharedTypes.addAll(extracted.get(f.getAbsolutePath()));
+						}
+					}
+				}
 
-								if (matchesPackage(thisPackageName, prefix))
+				if (pluginPackages.size() > 0)
+				{
+					int delta = (100 - parsedPercent) / pluginPackages.size();
+					for (int i = 0; i < pluginPackages.size() && !req.cancelRequested(); i++)
+					{
+						String pluginPackage = pluginPackages.get(i);
+						PackagePrefixTrie pluginPrefix = new PackagePrefixTrie(Collections.singletonList(pluginPackage));
+						MetaModelHolder holder = sharedTypes.copy();
+						for (Map.Entry<String, List<File>> entry : selectedPackages.entrySet())
+						{
+							if (pluginPrefix.matches(entry.getKey()))
+							{
+								for (File f : entry.getValue())
 								{
-									process = true;
-									usedPrefix = prefix;
-									break;
+									holder.addAll(extracted.get(f.getAbsolutePath()));
 								}
 							}
-							if (process)
-							{
-								// Select this package for later processing.
-								int pkgFiles = pkg.getCompilationUnits().length;
-								selectedPackages.add(pkg);
-								prjFiles += pkgFiles;
-								LogUtil.logger().fine("Package '" + pkg.getElementName() + "' in project '" + prj.getName() + "' will be documented with " +
-									pkgFiles + " compilation units. The prefix used was '" + usedPrefix + "'.");
-							}
-							else
-							{
-								LogUtil.logger().fine("Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
-									"' because it was not listed among the packages to document.");
-							}
+						}
+						IPath xmlFile = new Path(selectedPackages.get(pluginPackage).get(0).getParentFile().getAbsolutePath()).append(EXTENSION_XML_FILE);
+						IPath warningsFile = xmlFile.removeFileExtension().addFileExtension("warnings.txt");
+						try
+						{
+							generateDocumentation(holder, xmlFile, warningsFile, parsedPercent + i * delta + delta - 1, xmlFiles, warningsFiles);
+						}
+						catch (Exception e)
+						{
+							LogUtil.logger().log(Level.SEVERE, "Exception while generating documentation.", e);
+							exceptions.add(e);
 						}
 					}
-					LogUtil.logger().fine("Project '" + prj.getName() + "' will be documented with " + prjFiles + " compilation units.");
-					total += prjFiles;
 				}
 				else
 				{
-					LogUtil.logger().fine("Skipping project '" + prj.getName() + "' because it is not listed among the projects to document.");
+					LogUtil.logger().fine("No Servoy plugin found.");
 				}
+				req.progressUpdate(100);
 			}
 			else
 			{
-				LogUtil.logger().fine("Skipping roject '" + prj.getName() + "' because it is not a Java project.");
+				JavadocExtractor javadocExtractorVisitor = new JavadocExtractor();
+				sourceParser.setProgressRange(0, 100, 2, selectedFiles.size()); // 2% for writing the XML
+				sourceParser.parseFiles(selectedFiles, javadocExtractorVisitor);
+				if (!req.cancelRequested())
+				{
+					IPath xmlFile = req.getOutputFile();
+					IPath warningsFile = xmlFile.removeFileExtension().addFileExtension("warnings.txt");
+					generateDocumentation(javadocExtractorVisitor.getRawDataHolder(), xmlFile, warningsFile, 100, xmlFiles, warningsFiles);
+				}
 			}
 		}
-		LogUtil.logger().fine("Total number of compilation units to parse is " + total + ".");
+		catch (Throwable e)
+		{
+			LogUtil.logger().log(Level.SEVERE, "Exception while generating documentation.", e);
+			exceptions.add(e);
+		}
+		req.requestHandled(xmlFiles, warningsFiles, exceptions, req.cancelRequested());
 
-		int lastPercent = startPercent;
-		int reserve = 2; // 2% for writing the XML
-		int visited = 0;
-		req.progressUpdate(startPercent);
+		Date finalEnd = Calendar.getInstance().getTime();
+		LogUtil.logger().fine("Documentation post-processing ended at " + finalEnd.toString() + ".");
+	}
 
-		// Parse each compilation unit from the selected packages.
-		for (int i = 0; i < selectedPackages.size() && !req.cancelRequested(); i++)
+	/**
+	 * The counterpart of the servoy_base project check from build(): either the source folder or the project folder
+	 * that holds it must be named after servoy_base. Folders deeper inside the source folder do not count.
+	 */
+	private static boolean isServoyBaseFolder(String sourceFolder)
+	{
+		if (sourceFolder == null) return false;
+		File folder = new File(sourceFolder).getAbsoluteFile();
+		return folder.getName().contains("servoy_base") || (folder.getParentFile() != null && folder.getParentFile().getName().contains("servoy_base"));
+	}
+
+	private boolean containsPlugin(List<File> files, Map<String, MetaModelHolder> extracted)
+	{
+		for (File f : files)
 		{
-			IPackageFragment pkg = selectedPackages.get(i);
-			LogUtil.logger().fine("Parsing compilation units from package '" + pkg.getElementName() + "'.");
-			for (int k = 0; k < pkg.getCompilationUnits().length && !req.cancelRequested(); k++)
+			for (TypeMetaModel typeMM : extracted.get(f.getAbsolutePath()).getTypes())
 			{
-				ICompilationUnit comp = pkg.getCompilationUnits()[k];
-
-				// We must reconfigure the parser each time, because createAST clears all settings.
-				parser.setResolveBindings(true);
-				parser.setIgnoreMethodBodies(true);
-				parser.setProject(pkg.getJavaProject());
-				parser.setSource(comp);
+				if (ServoyPluginDetector.isServoyPlugin(typeMM)) return true;
+			}
+		}
+		return false;
+	}
 
-				String allCode = comp.getSource();
-				if (allCode != null)
-				{
-					SourceCodeTracker tracker = new SourceCodeTracker(allCode);
-					javadocExtractorVisitor.setSourceCodeTracker(tracker);
-				}
-				else
-				{
-					javadocExtractorVisitor.setSourceCodeTracker(null);
-				}
+	/**
+	 * Given a Java project and a list of packages inside the project, this method builds a documentation XML for each
+	 * listed package.
+	 */
+	public void processRoot(Map<String, List<String>> packagesByProject, IPath xmlFile, IPath warningsFile, int startPercent, int endPercent,
+		List<IPath> xmlFiles, List<IPath> warningsFiles) throws Exception
+	{
+		processRoot(packagesByProject, null, xmlFile, warningsFile, startPercent, endPercent, xmlFiles, warningsFiles);
+	}
 
-				// Create the AST and send it to the visitor.
-				ASTNode cu = parser.createAST(null);
-				cu.accept(javadocExtractorVisitor);
+	/**
+	 * Same as above, but the types parsed from the given packages are laid over a copy of the types from the shared layer, if any.
+	 */
+	public void processRoot(Map<String, List<String>> packagesByProject, SharedPackagesLayer sharedLayer, IPath xmlFile, IPath warningsFile,
+		int startPercent, int endPercent, List<IPath> xmlFiles, List<IPath> warningsFiles) throws Exception
+	{
+		JavadocExtractor javadocExtractorVisitor = new JavadocExtractor();
 
-				// Report progress. Make sure we don't output the same percentage more than once.
-				visited += 1;
-				int newPercent = startPercent + (endPercent - startPercent - reserve) * visited / total;
-				if (newPercent > lastPercent)
-				{
-					req.progressUpdate(newPercent);
-					lastPercent = newPercent;
-				}
+		if (LogUtil.logger().isLoggable(Level.FINE))
+		{
+			StringBuffer sb = new StringBuffer();
+			sb.append("Processing root with ").append(packagesByProject.size()).append(" projects:\n");
+			for (String prjName : packagesByProject.keySet())
+			{
+				List<String> packagesNames = packagesByProject.get(prjName);
+				sb.append(prjName).append(":");
+				for (String packName : packagesNames)
+					sb.append(" ").append(packName);
+				sb.append("\n");
 			}
+			LogUtil.logger().fine(sb.toString());
 		}
+		List<IPackageFragment> selectedPackages = session.selectPackages(packagesByProject);
+
+		// Parse the compilation units from the selected packages, in one batch per project.
+		CompilationUnitsParser unitsParser = session.newUnitsParser();
+		List<ICompilationUnit> units = unitsParser.collectUnits(selectedPackages);
+		LogUtil.logger().fine("Total number of compilation units to parse is " + units.size() + ".");
+
+		int reserve = 2; // 2% for writing the XML
+		unitsParser.setProgressRange(startPercent, endPercent, reserve, units.size());
+		req.progressUpdate(startPercent);
+
+		unitsParser.parseUnits(units, javadocExtractorVisitor);
 
 		if (!req.cancelRequested())
 		{
 			// Generate the documentation XML and the warnings file.
 			MetaModelHolder holder = javadocExtractorVisitor.getRawDataHolder();
+			if (sharedLayer != null)
+			{
+				holder = sharedLayer.overlay(holder);
+			}
 
-			Set<DocumentationWarning> allWarnings = new TreeSet<DocumentationWarning>();
+			generateDocumentation(holder, xmlFile, warningsFile, endPercent, xmlFiles, warningsFiles);
+		}
+	}
 
-			IDocumentationGenerator docgen;
-			if (req.getDocumentationGeneratorID() != null)
+	/**
+	 * Generates the documentation XML and the warnings file from the given types.
+	 */
+	private void generateDocumentation(MetaModelHolder holder, IPath xmlFile, IPath warningsFile, int endPercent, List<IPath> xmlFiles,
+		List<IPath> warningsFiles) throws CoreException, IOException
+	{
+		Set<DocumentationWarning> allWarnings = new TreeSet<DocumentationWarning>();
+
+		IDocumentationGenerator docgen;
+		if (req.getDocumentationGeneratorID() != null)
+		{
+			docgen = Activator.getDefault().getGenerator(req.getDocumentationGeneratorID());
+			if (docgen == null)
 			{
-				docgen = Activator.getDefault().getGenerator(req.getDocumentationGeneratorID());
-				if (docgen == null)
-				{
-					LogUtil.logger().severe("Cannot find doc generator with ID '" + req.getDocumentationGeneratorID() + "'.");
-				}
-				else
-				{
-					LogUtil.logger().info("Using doc generator with ID '" + req.getDocumentationGeneratorID() + "'.");
-				}
+				LogUtil.logger().severe("Cannot find doc generator with ID '" + req.getDocumentationGeneratorID() + "'.");
 			}
 			else
 			{
-				docgen = new DefaultDocumentationGenerator();
-				LogUtil.logger().info("Using default doc generator.");
+				LogUtil.logger().info("Using doc generator with ID '" + req.getDocumentationGeneratorID() + "'.");
 			}
+		}
+		else
+		{
+			docgen = new DefaultDocumentationGenerator();
+			LogUtil.logger().info("Using default doc generator.");
+		}
 
-			if (docgen != null)
+		if (docgen != null)
+		{
+			InputStream xmlStream = docgen.generate(req, holder, allWarnings, xmlFile);
+			if (xmlStream != null)
 			{
-				InputStream xmlStream = docgen.generate(req, holder, allWarnings, xmlFile);
-				if (xmlStream != null)
+				if (writeFile(xmlFile, xmlStream))
 				{
-					if (writeFile(root, xmlFile, xmlStream))
-					{
-						xmlFiles.add(xmlFile);
-					}
+					xmlFiles.add(xmlFile);
 				}
-				req.progressUpdate(endPercent - 1);
+			}
+			req.progressUpdate(endPercent - 1);
 
-				if (!req.cancelRequested())
+			if (!req.cancelRequested())
+			{
+				// If there are warnings, report them.
+				if (allWarnings.size() > 0)
 				{
-					// If there are warnings, report them.
-					if (allWarnings.size() > 0)
+					ByteArrayOutputStream baos = new ByteArrayOutputStream();
+					PrintWriter wout = new PrintWriter(baos);
+					wout.println(allWarnings.size() + " warnings");
+					wout.println();
+					for (DocumentationWarning dw : allWarnings)
 					{
-						ByteArrayOutputStream baos = new ByteArrayOutputStream();
-						PrintWriter wout = new PrintWriter(baos);
-						wout.println(allWarnings.size() + " warnings");
-						wout.println();
-						for (DocumentationWarning dw : allWarnings)
-						{
-							wout.println(dw.toString());
-						}
-						wout.close();
-						baos.close();
-						ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-						if (writeFile(root, warningsFile, bais))
-						{
-							warningsFiles.add(warningsFile);
-						}
-						LogUtil.logger().fine("Warnings written to file '" + warningsFile.toOSString() + "'.");
+						wout.println(dw.toString());
 					}
-					// If there is no warning, empty the warnings file if it already exists,
-					// otherwise don't create it.
-					else
+					wout.close();
+					baos.close();
+					ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+					if (writeFile(warningsFile, bais))
 					{
-						IFile f = root.getFile(warningsFile);
-						if (f.exists())
-						{
-							f.setContents((InputStream)null, true, true, null);
-						}
+						warningsFiles.add(warningsFile);
 					}
-					req.progressUpdate(endPercent);
+					LogUtil.logger().fine("Warnings written to file '" + warningsFile.toOSString() + "'.");
+				}
+				// If there is no warning, empty the warnings file if it already exists,
+				// otherwise don't create it.
+				else
+				{
+					clearFile(warningsFile);
 				}
+				req.progressUpdate(endPercent);
 			}
 		}
 	}
 
-	/**
-	 * @param thisPackageName
-	 * @param prefix
-	 * @return
-	 */
-	private boolean matchesPackage(String packageName, String prefix)
+	private boolean writeFile(IPath path, InputStream content) throws CoreException, IOException
 	{
-		return packageName.equals(prefix) || packageName.startsWith(prefix + '.');
-	}
+		if (!sourceFolders.isEmpty())
+		{
+			File file = path.toFile();
+			if (file.exists() && !req.confirmResourceOverwrite(path))
+			{
+				return false;
+			}
+			Files.copy(content, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		}
 
-	private boolean writeFile(IWorkspaceRoot root, IPath path, InputStream content) throws CoreException
-	{
-		IFile f = root.getFile(path);
+		IFile f = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
 		if (f.exists())
 		{
 			if (!req.confirmResourceOverwrite(path))
@@ -875,6 +1061,25 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 		return true;
 	}
 
+	private void clearFile(IPath path) throws CoreException, IOException
+	{
+		if (!sourceFolders.isEmpty())
+		{
+			File file = path.toFile();
+			if (file.exists())
+			{
+				Files.write(file.toPath(), new byte[0]);
+			}
+			return;
+		}
+
+		IFile f = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
+		if (f.exists())
+		{
+			f.setContents((InputStream)null, true, true, null);
+		}
+	}
+
 	/**
 	 * Import existing projects into the workspace and open closed projects.
 	 * @param sourceFolder
@@ -1008,16 +1213,36 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 		}
 	}
 
-	private void refreshProjects()
+	/**
+	 * Refreshes and builds only the projects that are documented, together with the projects they require (recursively).
+	 * The clean build is skipped if nothing changed during the refresh and all these projects were already built before.
+	 */
+	private void refreshProjects(List<IProject> importedProjects)
 	{
-		IProject[] prjs = workspaceRoot.getProjects();
+		Set<IProject> prjs = collectRequiredProjects(req.getProjectsAndPackagesToDocument().keySet());
+		LogUtil.logger().fine("Refreshing and building " + prjs.size() + " out of the " + workspaceRoot.getProjects().length + " projects in the workspace.");
+		final boolean[] changed = new boolean[] { false };
+		IResourceChangeListener changeListener = new IResourceChangeListener()
+		{
+			public void resourceChanged(IResourceChangeEvent event)
+			{
+				if (event.getDelta() != null && event.getDelta().getAffectedChildren().length > 0) changed[0] = true;
+			}
+		};
+		workspaceRoot.getWorkspace().addResourceChangeListener(changeListener, IResourceChangeEvent.POST_CHANGE);
 		try
 		{
 			for (IProject p : prjs)
 			{
-				if (p.isOpen() && p.exists())
+				p.refreshLocal(IResource.DEPTH_INFINITE, null);
+			}
+
+			boolean upToDate = !changed[0];
+			for (IProject p : prjs)
+			{
+				if (importedProjects.contains(p) || (p.hasNature(JavaCore.NATURE_ID) && !JavaCore.create(p).hasBuildState()))
 				{
-					p.refreshLocal(IResource.DEPTH_INFINITE, null);
+					upToDate = false;
 				}
 			}
 
@@ -1025,12 +1250,58 @@ public abstract class AbstractDocumentationGenerator implements IDocumentationGe
 //			ITargetDefinition target = service.getTarget(workspaceRoot.getFile(new Path(SERVOY_TARGET))).getTargetDefinition();
 //			target.resolve(new NullProgressMonitor());
 //			LoadTargetDefinitionJob.load(target);
-			workspaceRoot.getWorkspace().build(IncrementalProjectBuilder.CLEAN_BUILD, new NullProgressMonitor());
-			workspaceRoot.getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, new NullProgressMonitor());
+			List<IBuildConfiguration> configs = new ArrayList<IBuildConfiguration>();
+			for (IProject p : prjs)
+			{
+				configs.add(p.getActiveBuildConfig());
+			}
+			IBuildConfiguration[] buildConfigs = configs.toArray(new IBuildConfiguration[configs.size()]);
+			if (upToDate)
+			{
+				LogUtil.logger().fine("The projects did not change since they were last built, skipping the clean build.");
+				workspaceRoot.getWorkspace().build(buildConfigs, IncrementalProjectBuilder.INCREMENTAL_BUILD, false, new NullProgressMonitor());
+			}
+			else
+			{
+				workspaceRoot.getWorkspace().build(buildConfigs, IncrementalProjectBuilder.CLEAN_BUILD, false, new NullProgressMonitor());
+				workspaceRoot.getWorkspace().build(buildConfigs, IncrementalProjectBuilder.FULL_BUILD, false, new NullProgressMonitor());
+			}
 		}
 		catch (CoreException e)
 		{
 			LogUtil.logger().log(Level.WARNING, "Refresh project roots encountered a problem. Check workspace log.");
 		}
+		finally
+		{
+			workspaceRoot.getWorkspace().removeResourceChangeListener(changeListener);
+		}
+	}
+
+	/**
+	 * The given open projects, together with all the projects on their Java build paths (recursively).
+	 */
+	private Set<IProject> collectRequiredProjects(Collection<String> projectNames)
+	{
+		Set<IProject> prjs = new LinkedHashSet<IProject>();
+		List<String> toVisit = new ArrayList<String>(projectNames);
+		while (!toVisit.isEmpty())
+		{
+			IProject p = workspaceRoot.getProject(toVisit.remove(toVisit.size() - 1));
+			if (p.exists() && p.isOpen() && prjs.add(p))
+			{
+				try
+				{
+					if (p.hasNature(JavaCore.NATURE_ID))
+					{
+						Collections.addAll(toVisit, JavaCore.create(p).getRequiredProjectNames());
+					}
+				}
+				catch (CoreException e)
+				{
+					LogUtil.logger().log(Level.WARNING, "Cannot read the required projects of project '" + p.getName() + "'.", e);
+				}
+			}
+		}
+		return prjs;
 	}
 }
@@ -163,13 +163,10 @@ public class DefaultDocumentationGenerator extends AbstractDocumentationGenerato
 			{
 				if (!holder.hasType(typeData.getExtendsComponent()))
 				{
-					for (TypeMetaModel candidate : holder.getTypes())
+					TypeMetaModel candidate = holder.getTypeByPublicName(typeData.getExtendsComponent());
+					if (candidate != null)
 					{
-						if (typeData.getExtendsComponent().equals(candidate.getPublicName()))
-						{
-							typeData.setExtendsComponent(candidate.getName().getQualifiedName());
-							break;
-						}
+						typeData.setExtendsComponent(candidate.getName().getQualifiedName());
 					}
 				}
 			}
@@ -418,10 +415,10 @@ public class DefaultDocumentationGenerator extends AbstractDocumentationGenerato
 				String realTypePublicName = mm.getPublicName();
 				if (mm.isInterface())
 				{
-					for (TypeMetaModel tt : holder.getTypes())
+					for (TypeMetaModel tt : holder.getImplementors(mm.getName()))
 					{
 						// find first - and probably only (currently) - implementing class of the interface
-						if (tt.getInterfaces().indexOf(mm.getName()) != -1 && !tt.isInterface() && tt.getPublicName() != null)
+						if (!tt.isInterface() && tt.getPublicName() != null)
 						{
 							realTypePublicName = tt.getPublicName();
 							break;
@@ -105,6 +105,22 @@ public abstract class MemberStoragePlace
 			return docData;
 		}
 
+		// the inherited documentation only depends on the type and the signature, so it is searched once per type
+		TypeStoragePlace typeData = (TypeStoragePlace)tmm.getStore().get(DefaultDocumentationGenerator.STORE_KEY);
+		if (typeData == null)
+		{
+			return getInheritedDocData(tmm);
+		}
+		String signature = memberMM.getIndexSignature();
+		if (!typeData.hasInheritedDocData(signature))
+		{
+			typeData.setInheritedDocData(signature, getInheritedDocData(tmm));
+		}
+		return typeData.getInheritedDocData(signature);
+	}
+
+	private DocumentationDataDistilled getInheritedDocData(TypeMetaModel tmm)
+	{
 		for (TypeName intfName : tmm.getInterfaces())
 		{
 			TypeMetaModel intf = holder.getType(intfName);
@@ -19,6 +19,8 @@ package com.servoy.eclipse.docgenerator.generators;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.Set;
 import java.util.TreeSet;
@@ -53,13 +55,23 @@ public class SampleCodeAnalyzer
 	private final MetaModelHolder holder;
 	private final DocumentationGenerationRequest req;
 	private final IPath path;
+	private final boolean inFileSystem;
 	private boolean odd = true;
 
 	public SampleCodeAnalyzer(MetaModelHolder holder, DocumentationGenerationRequest req, IPath path)
+	{
+		this(holder, req, path, false);
+	}
+
+	/**
+	 * If inFileSystem is true, then the path is a file system path instead of a workspace path.
+	 */
+	public SampleCodeAnalyzer(MetaModelHolder holder, DocumentationGenerationRequest req, IPath path, boolean inFileSystem)
 	{
 		this.holder = holder;
 		this.req = req;
 		this.path = path;
+		this.inFileSystem = inFileSystem;
 	}
 
 	public void analyzeAndReport()
@@ -70,6 +82,18 @@ public class SampleCodeAnalyzer
 			listAndCheckJS(baos);
 			baos.close();
 
+			if (inFileSystem)
+			{
+				if (!path.toFile().exists() || req.confirmResourceOverwrite(path))
+				{
+					try (OutputStream os = new FileOutputStream(path.toFile()))
+					{
+						baos.writeTo(os);
+					}
+				}
+				return;
+			}
+
 			ByteArrayInputStream content = new ByteArrayInputStream(baos.toByteArray());
 			IWorkspace workspace = ResourcesPlugin.getWorkspace();
 			IWorkspaceRoot root = workspace.getRoot();
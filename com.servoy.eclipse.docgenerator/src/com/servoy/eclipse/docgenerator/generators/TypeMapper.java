@@ -25,6 +25,7 @@ import java.awt.print.PrinterJob;
 import java.lang.reflect.Array;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
@@ -212,22 +213,17 @@ public class TypeMapper
 		if (partialMatch)
 		{
 			// Try a search based on short names.
-			for (TypeMetaModel typeMM : docs.getTypes())
+			List<TypeMetaModel> sameShortName = docs.getTypesByShortName(originalType.getShortName());
+			if (!sameShortName.isEmpty())
 			{
-				String typeShortName = typeMM.getName().getShortName().replaceAll("\\[\\]", "");
-				if (typeShortName.equals(originalType.getShortName()))
-				{
-					return typeMM.getName();
-				}
+				return sameShortName.get(0).getName();
 			}
 
 			// Try a search based on public names
-			for (TypeMetaModel typeMM : docs.getTypes())
+			TypeMetaModel samePublicName = docs.getTypeByPublicName(originalType.getShortName());
+			if (samePublicName != null)
 			{
-				if (typeMM.getPublicName().equals(originalType.getShortName()))
-				{
-					return typeMM.getName();
-				}
+				return samePublicName.getName();
 			}
 		}
 
@@ -249,30 +245,16 @@ public class TypeMapper
 
 			if (equiv == null)
 			{
-				for (TypeMetaModel cdr : docs.getTypes())
+				// the first documented subclass or implementor, whichever comes first in the holder
+				TypeMetaModel subclass = getFirstDocumented(docs.getSubclasses(originalType));
+				TypeMetaModel implementor = getFirstDocumented(docs.getImplementors(originalType));
+				if (subclass != null && (implementor == null || docs.compareKeyOrder(subclass, implementor) <= 0))
+				{
+					equiv = subclass.getName();
+				}
+				else if (implementor != null)
 				{
-					if (cdr.isServoyDocumented())
-					{
-						if (cdr.getSupertype() != null && originalType.isSameType(cdr.getSupertype()))
-						{
-							equiv = cdr.getName();
-							break;
-						}
-						boolean found = false;
-						for (TypeName i : cdr.getInterfaces())
-						{
-							if (originalType.isSameType(i))
-							{
-								found = true;
-								equiv = cdr.getName();
-								break;
-							}
-						}
-						if (found)
-						{
-							break;
-						}
-					}
+					equiv = implementor.getName();
 				}
 			}
 			if (equiv != null)
@@ -286,4 +268,13 @@ public class TypeMapper
 		wasFound[0] = false;
 		return originalType;
 	}
+
+	private static TypeMetaModel getFirstDocumented(List<TypeMetaModel> types)
+	{
+		for (TypeMetaModel type : types)
+		{
+			if (type.isServoyDocumented()) return type;
+		}
+		return null;
+	}
 }
@@ -17,6 +17,9 @@
 
 package com.servoy.eclipse.docgenerator.generators;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
 
 /**
@@ -27,6 +30,12 @@ public class TypeStoragePlace
 	private String extendsComponent;
 	private final String realClassName;
 
+	/**
+	 * The documentation that the members of this type inherit, by index signature (see {@link MemberStoragePlace#getDocDataRecursively(TypeMetaModel)}).
+	 * Filled while writing the XML, when all dependencies are solved. Members that inherit no documentation are kept with null.
+	 */
+	private final Map<String, DocumentationDataDistilled> inheritedDocData = new HashMap<String, DocumentationDataDistilled>();
+
 	public TypeStoragePlace(TypeMetaModel typeMM)
 	{
 		extendsComponent = typeMM.getExtendsComponent();
@@ -47,4 +56,19 @@ public class TypeStoragePlace
 	{
 		return realClassName;
 	}
+
+	public boolean hasInheritedDocData(String memberSignature)
+	{
+		return inheritedDocData.containsKey(memberSignature);
+	}
+
+	public DocumentationDataDistilled getInheritedDocData(String memberSignature)
+	{
+		return inheritedDocData.get(memberSignature);
+	}
+
+	public void setInheritedDocData(String memberSignature, DocumentationDataDistilled docData)
+	{
+		inheritedDocData.put(memberSignature, docData);
+	}
 }
@@ -17,6 +17,8 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -24,14 +26,24 @@ import java.util.Map.Entry;
 /**
  * @author gerzse
  */
-public class AnnotationMetaModel
+public class AnnotationMetaModel implements Serializable
 {
-	private final Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+	private final Map<String, Object> attributes;
 	private final String name;
 
 	public AnnotationMetaModel(String name)
 	{
 		this.name = name;
+		this.attributes = new LinkedHashMap<String, Object>();
+	}
+
+	/**
+	 * Creates an annotation with fixed attributes, that can be shared (see {@link AnnotationPool}). No attributes can be added to it.
+	 */
+	public AnnotationMetaModel(String name, Map<String, Object> attributes)
+	{
+		this.name = name;
+		this.attributes = Collections.unmodifiableMap(attributes);
 	}
 
 	public String getName()
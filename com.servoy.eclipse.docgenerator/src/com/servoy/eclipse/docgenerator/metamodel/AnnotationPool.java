@@ -0,0 +1,105 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.metamodel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.eclipse.jdt.core.dom.IAnnotationBinding;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMemberValuePairBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+
+/**
+ * Shared annotations for one documentation build. The same annotations (@ServoyDocumented, @JSFunction, @ServoyClientSupport
+ * with the same values) occur thousands of times, so they are built once and the same immutable instance is used for all
+ * occurrences.
+ *
+ * The key of an annotation binding also identifies the annotated element, so the annotations are kept by a key built
+ * from the annotation type and the declared values instead. Annotations that reference unresolved types are not pooled.
+ *
+ * The pool can be used from several parser threads at the same time.
+ */
+public class AnnotationPool
+{
+	private final ConcurrentMap<String, AnnotationMetaModel> annotations = new ConcurrentHashMap<String, AnnotationMetaModel>();
+
+	/**
+	 * Returns the shared annotation for the binding, builds it with the given builder if it is not in the pool yet.
+	 */
+	public AnnotationMetaModel get(IAnnotationBinding binding, Function<IAnnotationBinding, AnnotationMetaModel> builder)
+	{
+		StringBuilder sb = new StringBuilder();
+		if (!appendKey(sb, binding)) return builder.apply(binding);
+		String key = sb.toString();
+		AnnotationMetaModel annotation = annotations.get(key);
+		if (annotation == null)
+		{
+			// no computeIfAbsent, the builder comes back to the pool for nested annotations
+			annotation = builder.apply(binding);
+			AnnotationMetaModel existing = annotations.putIfAbsent(key, annotation);
+			if (existing != null) annotation = existing;
+		}
+		return annotation;
+	}
+
+	private static boolean appendKey(StringBuilder sb, Object value)
+	{
+		if (value instanceof IAnnotationBinding annBinding)
+		{
+			ITypeBinding annType = annBinding.getAnnotationType();
+			if (annType == null || annType.getKey() == null) return false;
+			sb.append('@').append(annType.getKey()).append('(');
+			for (IMemberValuePairBinding pair : annBinding.getDeclaredMemberValuePairs())
+			{
+				sb.append(pair.getName()).append('=');
+				if (!appendKey(sb, pair.getValue())) return false;
+				sb.append(';');
+			}
+			sb.append(')');
+		}
+		else if (value instanceof IVariableBinding || value instanceof ITypeBinding)
+		{
+			String key = ((IBinding)value).getKey();
+			if (key == null) return false;
+			sb.append(key);
+		}
+		else if (value instanceof Object[] values)
+		{
+			sb.append('{');
+			for (Object v : values)
+			{
+				if (!appendKey(sb, v)) return false;
+				sb.append(',');
+			}
+			sb.append('}');
+		}
+		else if (value instanceof String s)
+		{
+			// the length keeps strings containing separators apart
+			sb.append('"').append(s.length()).append(':').append(s);
+		}
+		else
+		{
+			sb.append(value);
+		}
+		return true;
+	}
+}
@@ -17,29 +17,50 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * @author gerzse
  */
-public class AnnotationsList
+public class AnnotationsList implements Serializable
 {
-	private final Map<String, AnnotationMetaModel> annotations = new LinkedHashMap<String, AnnotationMetaModel>();
+	/**
+	 * Shared by all the declarations without annotations. Nothing can be added to it.
+	 */
+	public static final AnnotationsList EMPTY = new AnnotationsList(Collections.<String, AnnotationMetaModel> emptyMap());
+
+	private final Map<String, AnnotationMetaModel> annotations;
 
 	public AnnotationsList()
 	{
-		this(null);
+		this((AnnotationsList)null);
 	}
 
 	public AnnotationsList(AnnotationsList anns)
 	{
+		annotations = new LinkedHashMap<String, AnnotationMetaModel>();
 		if (anns != null)
 		{
 			annotations.putAll(anns.annotations);
 		}
 	}
 
+	private AnnotationsList(Map<String, AnnotationMetaModel> annotations)
+	{
+		this.annotations = annotations;
+	}
+
+	/**
+	 * Keeps the empty list shared when it is read back from the extraction cache.
+	 */
+	private Object readResolve()
+	{
+		return annotations == Collections.<String, AnnotationMetaModel> emptyMap() ? EMPTY : this;
+	}
+
 	public void add(String name, AnnotationMetaModel annotationMM)
 	{
 		annotations.put(name, annotationMM);
@@ -17,13 +17,15 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
+
 /**
  * Holds one warning about something in the documentation. There are several categories
  * of warnings, to make it easier to review them.
  * 
  * @author gerzse
  */
-public class DocumentationWarning implements Comparable<DocumentationWarning>
+public class DocumentationWarning implements Comparable<DocumentationWarning>, Serializable
 {
 	public static enum WarningType
 	{
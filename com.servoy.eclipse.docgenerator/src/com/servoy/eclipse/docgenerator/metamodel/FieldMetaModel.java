@@ -20,7 +20,6 @@ package com.servoy.eclipse.docgenerator.metamodel;
 import org.eclipse.jdt.core.dom.BodyDeclaration;
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
-import org.eclipse.jdt.core.dom.ITypeBinding;
 
 /**
  * Holds information about a field from a Java class. Compared to what is stored about a generic member of a class,
@@ -37,17 +36,17 @@ public class FieldMetaModel extends MemberMetaModel
 	private final String indexSignature;
 	private final String fullSignature;
 
-	public FieldMetaModel(String className, BodyDeclaration fld, String name)
+	public FieldMetaModel(String className, BodyDeclaration fld, String name, TypeNamePool typeNames)
 	{
 		super(className, name, getVisibility(fld), isStatic(fld));
 
 		if (fld instanceof FieldDeclaration fieldDeclaration)
 		{
-			type = new TypeName(fieldDeclaration.getType(), false, getClassName() + " - " + getName(), "field type", getWarnings());
+			type = typeNames.get(fieldDeclaration.getType(), false, () -> getClassName() + " - " + getName(), "field type", getWarnings());
 		}
 		else if (fld instanceof EnumConstantDeclaration enumConstantDeclaration)
 		{
-			type = new TypeName(enumConstantDeclaration.resolveVariable().getType(), false);
+			type = typeNames.get(enumConstantDeclaration.resolveVariable().getType(), false);
 		}
 		else
 		{
@@ -61,6 +60,17 @@ public class FieldMetaModel extends MemberMetaModel
 		fullSignature = sb.toString();
 	}
 
+	private FieldMetaModel(FieldMetaModel original)
+	{
+		super(original.className, original.getName(), original.getVisibility(), original.isStatic());
+		this.setJavadoc(original.getJavadoc(null));
+		this.getWarnings().addAll(original.getWarnings());
+		this.setAnnotations(original.getAnnotations());
+		this.type = original.type;
+		this.indexSignature = original.indexSignature;
+		this.fullSignature = original.fullSignature;
+	}
+
 	@Override
 	public TypeName getType()
 	{
@@ -92,8 +102,14 @@ public class FieldMetaModel extends MemberMetaModel
 	}
 
 	@Override
-	public IMemberMetaModel withType(ITypeBinding iTypeBinding)
+	public IMemberMetaModel withType(TypeName typeArgument)
 	{
 		throw new RuntimeException("NOT IMPLEMENTED (yet)");
 	}
+
+	@Override
+	public IMemberMetaModel copy()
+	{
+		return new FieldMetaModel(this);
+	}
 }
@@ -17,6 +17,7 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -26,7 +27,7 @@ import java.util.TreeSet;
  * @author gabi
  *
  */
-public abstract class GenericMemberMetaModel implements IMemberMetaModel
+public abstract class GenericMemberMetaModel implements IMemberMetaModel, Serializable
 {
 	/**
 	 * Public store where documentation generators can put any kind of data during processing.
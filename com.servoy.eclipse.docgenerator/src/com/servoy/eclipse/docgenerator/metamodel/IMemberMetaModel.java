@@ -19,7 +19,6 @@ package com.servoy.eclipse.docgenerator.metamodel;
 
 import java.util.Set;
 
-import org.eclipse.jdt.core.dom.ITypeBinding;
 
 import com.servoy.eclipse.docgenerator.metamodel.MemberMetaModel.Visibility;
 
@@ -48,5 +47,10 @@ public interface IMemberMetaModel extends IPublicStore
 
 	boolean isStatic();
 
-	IMemberMetaModel withType(ITypeBinding iTypeBinding);
+	IMemberMetaModel withType(TypeName typeArgument);
+
+	/**
+	 * Returns a copy of this member which shares all parsed information, but has its own store and warnings.
+	 */
+	IMemberMetaModel copy();
 }
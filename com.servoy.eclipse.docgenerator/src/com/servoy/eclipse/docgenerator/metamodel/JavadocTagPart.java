@@ -17,18 +17,28 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
+ * A Javadoc tag with its parts. The tag is built by adding parts, then {@link #compress()} freezes it, together with all
+ * its child tags: no part can be added anymore, so the tag index and the renderings are computed only once.
+ *
  * @author gerzse
  */
-public class JavadocTagPart implements IJavadocPart, IJavadocPartsHolder
+public class JavadocTagPart implements IJavadocPart, IJavadocPartsHolder, Serializable
 {
 	private final String tagName;
-	private final List<IJavadocPart> parts = new ArrayList<IJavadocPart>();
+	private List<IJavadocPart> parts = new ArrayList<IJavadocPart>(); // unmodifiable once frozen
+	private boolean frozen;
+	private Map<String, List<JavadocTagPart>> tagsIndex; // child tags by name, built by compress()
+	private String cleanString; // renderings, cached once the tag is frozen
+	private String rawString;
 
 	public JavadocTagPart(String tagName)
 	{
@@ -42,16 +52,27 @@ public class JavadocTagPart implements IJavadocPart, IJavadocPartsHolder
 
 	public List<IJavadocPart> getParts()
 	{
-		return Collections.unmodifiableList(parts);
+		return frozen ? parts : Collections.unmodifiableList(new ArrayList<IJavadocPart>(parts));
 	}
 
 	public void addPart(IJavadocPart part)
 	{
+		if (frozen) throw new IllegalStateException("Javadoc tag '" + tagName + "' was compressed, no part can be added to it.");
 		parts.add(part);
 	}
 
+	public boolean isFrozen()
+	{
+		return frozen;
+	}
+
 	public List<JavadocTagPart> findTags(String requestedTagName)
 	{
+		if (frozen)
+		{
+			List<JavadocTagPart> tags = tagsIndex.get(requestedTagName);
+			return tags != null ? tags : Collections.<JavadocTagPart> emptyList();
+		}
 		List<JavadocTagPart> tags = new ArrayList<JavadocTagPart>();
 		for (IJavadocPart part : parts)
 		{
@@ -67,46 +88,98 @@ public class JavadocTagPart implements IJavadocPart, IJavadocPartsHolder
 		return Collections.unmodifiableList(tags);
 	}
 
+	/**
+	 * Merges the adjacent text parts and freezes this tag and all its child tags.
+	 */
 	public void compress()
 	{
-		IJavadocPart previous = null;
-		List<IJavadocPart> newParts = new ArrayList<IJavadocPart>();
-		for (IJavadocPart part : parts)
+		if (frozen) return;
+		List<IJavadocPart> newParts = new ArrayList<IJavadocPart>(parts.size());
+		int runStart = -1; // first text part of the current run of adjacent text parts
+		for (int i = 0; i <= parts.size(); i++)
 		{
+			IJavadocPart part = i < parts.size() ? parts.get(i) : null;
 			if (part instanceof JavadocTagPart)
 			{
 				((JavadocTagPart)part).compress();
 			}
-			if (previous != null)
+			if (part instanceof JavadocTextPart)
 			{
-				if (previous instanceof JavadocTextPart && part instanceof JavadocTextPart)
-				{
-					previous = new JavadocTextPart(((JavadocTextPart)previous).getContent() + ((JavadocTextPart)part).getContent());
-				}
-				else
-				{
-					newParts.add(previous);
-					previous = part;
-				}
+				if (runStart < 0) runStart = i;
+				continue;
 			}
-			else
+			if (runStart >= 0)
+			{
+				newParts.add(mergeTextParts(runStart, i));
+				runStart = -1;
+			}
+			if (part != null)
 			{
-				previous = part;
+				newParts.add(part);
 			}
 		}
-		if (previous != null)
+		parts = Collections.unmodifiableList(newParts);
+		indexTags();
+		frozen = true;
+	}
+
+	/**
+	 * Merges the text parts between the given positions into one, with a single allocation for the text.
+	 */
+	private IJavadocPart mergeTextParts(int from, int to)
+	{
+		if (to - from == 1) return parts.get(from);
+		int length = 0;
+		for (int i = from; i < to; i++)
 		{
-			newParts.add(previous);
+			length += ((JavadocTextPart)parts.get(i)).getContent().length();
 		}
-		parts.clear();
-		parts.addAll(newParts);
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = from; i < to; i++)
+		{
+			sb.append(((JavadocTextPart)parts.get(i)).getContent());
+		}
+		return new JavadocTextPart(sb.toString());
+	}
+
+	private void indexTags()
+	{
+		Map<String, List<JavadocTagPart>> index = new HashMap<String, List<JavadocTagPart>>();
+		for (IJavadocPart part : parts)
+		{
+			if (part instanceof JavadocTagPart tag)
+			{
+				List<JavadocTagPart> tags = index.get(tag.getName());
+				if (tags == null)
+				{
+					tags = new ArrayList<JavadocTagPart>(1);
+					index.put(tag.getName(), tags);
+				}
+				tags.add(tag);
+			}
+		}
+		for (Map.Entry<String, List<JavadocTagPart>> entry : index.entrySet())
+		{
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		tagsIndex = index;
 	}
 
 	public String getAsString(boolean clean)
 	{
+		String cached = clean ? cleanString : rawString;
+		if (cached != null) return cached;
+
 		StringBuffer sb = new StringBuffer();
 		gather(sb, clean, 0);
-		return sb.toString();
+		String result = sb.toString();
+		// a frozen tag has only frozen child tags, so the renderings cannot change anymore
+		if (frozen)
+		{
+			if (clean) cleanString = result;
+			else rawString = result;
+		}
+		return result;
 	}
 
 	private void gather(StringBuffer sb, boolean clean, int level)
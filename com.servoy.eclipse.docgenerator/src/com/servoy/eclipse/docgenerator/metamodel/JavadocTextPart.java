@@ -17,11 +17,13 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
+
 
 /**
  * @author gerzse
  */
-public class JavadocTextPart implements IJavadocPart
+public class JavadocTextPart implements IJavadocPart, Serializable
 {
 	private final String content;
 
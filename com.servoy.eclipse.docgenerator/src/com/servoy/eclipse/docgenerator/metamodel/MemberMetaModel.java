@@ -113,7 +113,8 @@ public abstract class MemberMetaModel extends GenericMemberMetaModel
 			return javadoc;
 		}
 
-		return getJavadoc(holder.getType(className), holder);
+		TypeMetaModel tmm = holder.getType(className);
+		return tmm != null ? tmm.getInheritedJavadoc(getIndexSignature(), holder) : null;
 	}
 
 	public TypeMetaModel getClassType(MetaModelHolder holder)
@@ -121,38 +122,6 @@ public abstract class MemberMetaModel extends GenericMemberMetaModel
 		return holder.getType(className);
 	}
 
-	private JavadocMetaModel getJavadoc(TypeMetaModel tmm, MetaModelHolder holder)
-	{
-		if (tmm == null)
-		{
-			return null;
-		}
-
-		IMemberMetaModel member = tmm.getMember(getIndexSignature(), null);
-		if (member != null && member.getJavadoc(null) != null)
-		{
-			return member.getJavadoc(null);
-		}
-
-		// look in super class first, see for example QBFunctions.getParent
-		JavadocMetaModel superClassJavaDoc = getJavadoc(holder.getType(tmm.getSupertype()), holder);
-		if (superClassJavaDoc != null)
-		{
-			return superClassJavaDoc;
-		}
-
-		for (TypeName intf : tmm.getInterfaces())
-		{
-			JavadocMetaModel jdoc = getJavadoc(holder.getType(intf), holder);
-			if (jdoc != null)
-			{
-				return jdoc;
-			}
-		}
-
-		return null;
-	}
-
 
 	public void setJavadoc(JavadocMetaModel jd)
 	{
@@ -17,10 +17,19 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import com.servoy.eclipse.docgenerator.annotations.AnnotationManagerJdt;
@@ -36,11 +45,37 @@ public class MetaModelHolder
 {
 	private final AnnotationManagerJdt annotationManager = new AnnotationManagerJdt(this);
 
-	private final Map<String, TypeMetaModel> types = new TreeMap<String, TypeMetaModel>();
+	private final Map<String, TypeMetaModel> types = new HashMap<String, TypeMetaModel>();
+
+	// the same types, by their keys in the format of the type name keys, for the lookups by type name (see TypeName#getBaseBinaryKey())
+	private final Map<String, TypeMetaModel> typesByKey = new HashMap<String, TypeMetaModel>();
+
+	// The keys and the types in the order of the keys, built when first needed after a change.
+	private List<String> sortedKeys;
+	private List<TypeMetaModel> typesInKeyOrder;
 
 	// In the XML the classes used to be written in alphabetic order of their public name,
-	// so we also keep them in a sorted set to respect this order.
-	private final SortedSet<TypeMetaModel> sortedTypes = new TreeSet<TypeMetaModel>();
+	// so we also keep them in a sorted set to respect this order. The set is built when first needed after a change,
+	// with the public names computed when the types are added (getting them means looking up annotations).
+	private SortedSet<TypeMetaModel> sortedTypes;
+	private final Map<TypeMetaModel, String> publicNames = new IdentityHashMap<TypeMetaModel, String>();
+
+	// Reverse indexes, built in the order of the keys when first needed after a change, so that the first type found
+	// in them is the same as the first one found when looking through getTypes().
+	private Map<String, List<TypeMetaModel>> implementors; // by the base name of the interface
+	private Map<String, List<TypeMetaModel>> subclasses; // by the base name of the supertype
+	private Map<String, TypeMetaModel> typesByPublicName;
+	private Map<String, List<TypeMetaModel>> typesByShortName; // short names without array information
+	private Map<TypeMetaModel, Integer> keyOrder;
+
+	// flattened members of the types (see TypeMetaModel#getMembers(MetaModelHolder)), dropped when types are added
+	private final Map<TypeMetaModel, TypeMetaModel.MemberTable> memberTables = new IdentityHashMap<TypeMetaModel, TypeMetaModel.MemberTable>();
+
+	// members that can be found in the types (see TypeMetaModel#getMember(String, MetaModelHolder)), dropped when types are added
+	private final Map<TypeMetaModel, TypeMetaModel.MemberIndex> memberIndexes = new IdentityHashMap<TypeMetaModel, TypeMetaModel.MemberIndex>();
+
+	// Javadocs of the members, resolved through the supertypes (see MemberMetaModel#getJavadoc(MetaModelHolder)), dropped when types are added
+	private final Map<TypeMetaModel, TypeMetaModel.InheritedJavadocs> inheritedJavadocs = new IdentityHashMap<TypeMetaModel, TypeMetaModel.InheritedJavadocs>();
 
 	/**
 	 * @return the annotationManager
@@ -52,22 +87,114 @@ public class MetaModelHolder
 
 	public void addType(String key, TypeMetaModel value)
 	{
-		types.put(key, value);
-		sortedTypes.add(value);
+		TypeMetaModel previous = types.put(key, value);
+		typesByKey.put(TypeName.buildKey(key), value);
+		if (previous == null)
+		{
+			sortedKeys = null;
+		}
+		else if (previous != value)
+		{
+			publicNames.remove(previous);
+		}
+		publicNames.put(value, value.getPublicName());
+		typesInKeyOrder = null;
+		sortedTypes = null;
+		keyOrder = null;
+		memberTables.clear();
+		memberIndexes.clear();
+		inheritedJavadocs.clear();
+	}
+
+	/**
+	 * Adds all types of another holder to this one, in the key order of the other holder.
+	 * Types that are already present under the same key are replaced.
+	 */
+	public void addAll(MetaModelHolder other)
+	{
+		for (String key : other.getSortedKeys())
+		{
+			addType(key, other.types.get(key));
+		}
+	}
+
+	/**
+	 * Returns a new holder with copies of all types of this holder (see {@link TypeMetaModel#copy()}).
+	 */
+	public MetaModelHolder copy()
+	{
+		MetaModelHolder result = new MetaModelHolder();
+		for (String key : getSortedKeys())
+		{
+			result.addType(key, types.get(key).copy());
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the types of this holder, with their keys, so that they can be read back by {@link #readTypes(ObjectInputStream)}.
+	 * The data stored by the documentation generators in the types is written as well, so this is meant for freshly extracted types.
+	 */
+	public void writeTypes(ObjectOutputStream out) throws IOException
+	{
+		LinkedHashMap<String, TypeMetaModel> keyed = new LinkedHashMap<String, TypeMetaModel>();
+		for (String key : getSortedKeys())
+		{
+			keyed.put(key, types.get(key));
+		}
+		out.writeObject(keyed);
+	}
+
+	/**
+	 * Reads types written by {@link #writeTypes(ObjectOutputStream)} into a new holder.
+	 */
+	public static MetaModelHolder readTypes(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		MetaModelHolder result = new MetaModelHolder();
+		for (Map.Entry< ? , ? > entry : ((Map< ? , ? >)in.readObject()).entrySet())
+		{
+			result.addType((String)entry.getKey(), (TypeMetaModel)entry.getValue());
+		}
+		return result;
 	}
 
 	public SortedSet<TypeMetaModel> getSortedTypes()
 	{
+		if (sortedTypes == null)
+		{
+			// first compare the public names, if they are equal compare the qualified names (see TypeMetaModel.compareTo)
+			SortedSet<TypeMetaModel> sorted = new TreeSet<TypeMetaModel>(new Comparator<TypeMetaModel>()
+			{
+				public int compare(TypeMetaModel o1, TypeMetaModel o2)
+				{
+					int cmp = publicNames.get(o1).compareTo(publicNames.get(o2));
+					return cmp != 0 ? cmp : o1.getName().getQualifiedName().compareTo(o2.getName().getQualifiedName());
+				}
+			});
+			sorted.addAll(getTypes());
+			sortedTypes = Collections.unmodifiableSortedSet(sorted);
+		}
 		return sortedTypes;
 	}
 
+	private List<String> getSortedKeys()
+	{
+		if (sortedKeys == null)
+		{
+			List<String> keys = new ArrayList<String>(types.keySet());
+			Collections.sort(keys);
+			sortedKeys = keys;
+		}
+		return sortedKeys;
+	}
+
 	public TypeMetaModel getType(TypeName name)
 	{
 		if (name == null)
 		{
 			return null;
 		}
-		return getType(name.getBaseBinaryName());
+		return typesByKey.get(name.getBaseBinaryKey());
 	}
 
 	public TypeMetaModel getType(String name)
@@ -80,9 +207,140 @@ public class MetaModelHolder
 		return types.containsKey(name);
 	}
 
+	/**
+	 * Returns the types in the order of their keys.
+	 */
 	public Collection<TypeMetaModel> getTypes()
 	{
-		return types.values();
+		if (typesInKeyOrder == null)
+		{
+			List<String> keys = getSortedKeys();
+			List<TypeMetaModel> result = new ArrayList<TypeMetaModel>(keys.size());
+			for (String key : keys)
+			{
+				result.add(types.get(key));
+			}
+			typesInKeyOrder = Collections.unmodifiableList(result);
+		}
+		return typesInKeyOrder;
+	}
+
+	/**
+	 * Returns the types that directly implement (or, for interfaces, extend) the given interface, in the order of their keys.
+	 */
+	public List<TypeMetaModel> getImplementors(TypeName intf)
+	{
+		buildIndexes();
+		return getIndexed(implementors, intf.getBaseName());
+	}
+
+	/**
+	 * Returns the types whose supertype is the given class, in the order of their keys.
+	 */
+	public List<TypeMetaModel> getSubclasses(TypeName cls)
+	{
+		buildIndexes();
+		return getIndexed(subclasses, cls.getBaseName());
+	}
+
+	/**
+	 * Returns the first type, in the order of the keys, that has the given public name, or null.
+	 */
+	public TypeMetaModel getTypeByPublicName(String publicName)
+	{
+		buildIndexes();
+		return typesByPublicName.get(publicName);
+	}
+
+	/**
+	 * Returns the types with the given short name (without array information), in the order of their keys.
+	 */
+	public List<TypeMetaModel> getTypesByShortName(String shortName)
+	{
+		buildIndexes();
+		return getIndexed(typesByShortName, shortName);
+	}
+
+	/**
+	 * Compares two types of this holder by the order of their keys.
+	 */
+	public int compareKeyOrder(TypeMetaModel type1, TypeMetaModel type2)
+	{
+		buildIndexes();
+		return keyOrder.get(type1).compareTo(keyOrder.get(type2));
+	}
+
+	private static List<TypeMetaModel> getIndexed(Map<String, List<TypeMetaModel>> index, String key)
+	{
+		List<TypeMetaModel> indexed = index.get(key);
+		return indexed != null ? Collections.unmodifiableList(indexed) : Collections.<TypeMetaModel> emptyList();
+	}
+
+	private void buildIndexes()
+	{
+		if (keyOrder != null) return;
+		implementors = new HashMap<String, List<TypeMetaModel>>();
+		subclasses = new HashMap<String, List<TypeMetaModel>>();
+		typesByPublicName = new HashMap<String, TypeMetaModel>();
+		typesByShortName = new HashMap<String, List<TypeMetaModel>>();
+		Map<TypeMetaModel, Integer> order = new IdentityHashMap<TypeMetaModel, Integer>();
+		for (TypeMetaModel type : getTypes())
+		{
+			if (order.containsKey(type)) continue;
+			order.put(type, Integer.valueOf(order.size()));
+			for (TypeName intf : type.getInterfaces())
+			{
+				addIndexed(implementors, intf.getBaseName(), type);
+			}
+			if (type.getSupertype() != null) addIndexed(subclasses, type.getSupertype().getBaseName(), type);
+			typesByPublicName.putIfAbsent(publicNames.get(type), type);
+			addIndexed(typesByShortName, type.getName().getShortName().replace("[]", ""), type);
+		}
+		keyOrder = order;
+	}
+
+	private static void addIndexed(Map<String, List<TypeMetaModel>> index, String key, TypeMetaModel type)
+	{
+		List<TypeMetaModel> indexed = index.get(key);
+		if (indexed == null)
+		{
+			indexed = new ArrayList<TypeMetaModel>(1);
+			index.put(key, indexed);
+		}
+		if (indexed.isEmpty() || indexed.get(indexed.size() - 1) != type) indexed.add(type);
+	}
+
+	TypeMetaModel.MemberTable getMemberTable(TypeMetaModel type)
+	{
+		TypeMetaModel.MemberTable table = memberTables.get(type);
+		return table != null && table.isUpToDate() ? table : null;
+	}
+
+	void putMemberTable(TypeMetaModel type, TypeMetaModel.MemberTable table)
+	{
+		memberTables.put(type, table);
+	}
+
+	TypeMetaModel.MemberIndex getMemberIndex(TypeMetaModel type)
+	{
+		TypeMetaModel.MemberIndex index = memberIndexes.get(type);
+		return index != null && index.isUpToDate() ? index : null;
+	}
+
+	void putMemberIndex(TypeMetaModel type, TypeMetaModel.MemberIndex index)
+	{
+		memberIndexes.put(type, index);
+	}
+
+	TypeMetaModel.InheritedJavadocs getInheritedJavadocs(TypeMetaModel type)
+	{
+		TypeMetaModel.InheritedJavadocs javadocs = inheritedJavadocs.get(type);
+		return javadocs != null && javadocs.isUpToDate() ? javadocs : null;
+	}
+
+	void putInheritedJavadocs(TypeMetaModel type, TypeMetaModel.InheritedJavadocs javadocs)
+	{
+		inheritedJavadocs.put(type, javadocs);
 	}
 
 }
@@ -23,7 +23,6 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.Type;
@@ -46,14 +45,14 @@ public class MethodMetaModel extends MemberMetaModel
 	private TypeName returnType;
 	private LinkedHashMap<String, TypeName> parameters = new LinkedHashMap<>();
 
-	public MethodMetaModel(String className, MethodDeclaration astNode)
+	public MethodMetaModel(String className, MethodDeclaration astNode, TypeNamePool typeNames)
 	{
 		super(className, astNode.getName().getFullyQualifiedName(), getVisibility(astNode), isStatic(astNode));
 
 		Type ret = astNode.getReturnType2();
 		if (ret != null)
 		{
-			returnType = new TypeName(ret, false, className + " - " + getName(), "method return", getWarnings());
+			returnType = typeNames.get(ret, false, () -> className + " - " + getName(), "method return", getWarnings());
 		}
 
 		boolean hasVarargs = false;
@@ -63,7 +62,7 @@ public class MethodMetaModel extends MemberMetaModel
 			{
 				String parName = varDecl.getName().getFullyQualifiedName();
 				Type type = varDecl.getType();
-				TypeName parType = new TypeName(type, varDecl.isVarargs(), className + " - " + getName(), "method parameter", getWarnings());
+				TypeName parType = typeNames.get(type, varDecl.isVarargs(), () -> className + " - " + getName(), "method parameter", getWarnings());
 				parameters.put(parName, parType);
 
 				if (varDecl.isVarargs()) hasVarargs = true;
@@ -80,7 +79,7 @@ public class MethodMetaModel extends MemberMetaModel
 		return indexSignature;
 	}
 
-	private MethodMetaModel(MethodMetaModel original, ITypeBinding typeArgument)
+	private MethodMetaModel(MethodMetaModel original, TypeName typeArgument)
 	{
 		super(original.className, original.getName(), original.getVisibility(), original.isStatic());
 		this.setJavadoc(original.getJavadoc(null));
@@ -100,6 +99,20 @@ public class MethodMetaModel extends MemberMetaModel
 		}
 	}
 
+	private MethodMetaModel(MethodMetaModel original)
+	{
+		super(original.className, original.getName(), original.getVisibility(), original.isStatic());
+		this.setJavadoc(original.getJavadoc(null));
+		this.getWarnings().addAll(original.getWarnings());
+		// the parameters and return type were already adjusted to the annotations of the original
+		super.setAnnotations(original.getAnnotations());
+		this.varargs = original.varargs;
+		this.parameters.putAll(original.parameters);
+		this.returnType = original.returnType;
+		this.indexSignature = original.indexSignature;
+		this.fullSignature = original.fullSignature;
+	}
+
 	private static String buildIndexSignature(String name, Map<String, TypeName> parameters)
 	{
 		StringBuilder indexSig = new StringBuilder().append(name).append("(");
@@ -218,16 +231,15 @@ public class MethodMetaModel extends MemberMetaModel
 				LinkedHashMap<String, TypeName> newParams = new LinkedHashMap<String, TypeName>();
 				for (Entry<String, TypeName> entry : parameters.entrySet())
 				{
-					ITypeBinding tb = (ITypeBinding)array[index++];
-					TypeName value = new TypeName(tb, entry.getValue().isVarargs());
+					TypeName value = ((TypeName)array[index++]).withVarargs(entry.getValue().isVarargs());
 					newParams.put(entry.getKey(), value);
 				}
 				this.parameters = newParams;
 			}
 			Object returns = jsSignature.getAttribute("returns");
-			if (returns instanceof ITypeBinding && !((ITypeBinding)returns).getBinaryName().equals("java.lang.Object"))
+			if (returns instanceof TypeName returnsType && !returnsType.getBinaryName().equals("java.lang.Object"))
 			{
-				returnType = new TypeName((ITypeBinding)returns, false);
+				returnType = returnsType;
 			}
 		}
 	}
@@ -239,11 +251,17 @@ public class MethodMetaModel extends MemberMetaModel
 	}
 
 	@Override
-	public IMemberMetaModel withType(ITypeBinding typeArgument)
+	public IMemberMetaModel withType(TypeName typeArgument)
 	{
 		return new MethodMetaModel(this, typeArgument);
 	}
 
+	@Override
+	public IMemberMetaModel copy()
+	{
+		return new MethodMetaModel(this);
+	}
+
 	@Override
 	public int hashCode()
 	{
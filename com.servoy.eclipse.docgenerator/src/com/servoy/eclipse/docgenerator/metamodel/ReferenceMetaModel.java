@@ -17,12 +17,14 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
+
 
 
 /**
  * @author gerzse
  */
-public class ReferenceMetaModel implements IJavadocPart
+public class ReferenceMetaModel implements IJavadocPart, Serializable
 {
 	public static enum QualifiedNameDisplayState
 	{
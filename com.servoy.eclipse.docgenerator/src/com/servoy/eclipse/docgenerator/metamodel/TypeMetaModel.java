@@ -17,9 +17,12 @@
 
 package com.servoy.eclipse.docgenerator.metamodel;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,7 +31,6 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.core.dom.EnumDeclaration;
-import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.TypeParameter;
@@ -48,13 +50,19 @@ import org.eclipse.jdt.core.dom.TypeParameter;
  *
  * @author gerzse
  */
-public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
+public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore, Serializable
 {
 	private final boolean isInterface;
-	private final List<TypeParameter> typeParameters;
+	private final boolean isEnum;
+	private final List<TypeParameterMetaModel> typeParameters;
 
 	Map<String, IMemberMetaModel> members = new TreeMap<String, IMemberMetaModel>();
 
+	/**
+	 * Counts the changes of the members, so that the flattened members built from them can be checked (see {@link DerivedMembers}).
+	 */
+	private int membersModCount;
+
 	/**
 	 * Default category to use when the "category" attribute is not explicitly given in the @ServoyDocumented annotation.
 	 *
@@ -88,10 +96,19 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 	 */
 	private final Set<DocumentationWarning> warnings = new TreeSet<DocumentationWarning>();
 
-	public TypeMetaModel(String packageName, List<String> ancestorClassNames, TypeDeclaration astNode, boolean isInterface)
+	public TypeMetaModel(String packageName, List<String> ancestorClassNames, TypeDeclaration astNode, boolean isInterface, TypeNamePool typeNames)
 	{
 		this.isInterface = isInterface;
-		this.typeParameters = astNode.typeParameters();
+		this.isEnum = false;
+		List<TypeParameterMetaModel> params = new ArrayList<>();
+		for (Object o : astNode.typeParameters())
+		{
+			if (o instanceof TypeParameter typeParameter)
+			{
+				params.add(new TypeParameterMetaModel(typeParameter, typeNames));
+			}
+		}
+		this.typeParameters = params;
 		String parentName = packageName + ".";
 		for (String s : ancestorClassNames)
 		{
@@ -101,7 +118,7 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 
 		if (astNode.getSuperclassType() != null)
 		{
-			supertypeName = new TypeName(astNode.getSuperclassType(), false, name.getQualifiedName(), "supertype", warnings);
+			supertypeName = typeNames.get(astNode.getSuperclassType(), false, name::getQualifiedName, "supertype", warnings);
 		}
 		List< ? > superInterfaces = astNode.superInterfaceTypes();
 		if (superInterfaces != null)
@@ -110,15 +127,16 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 			{
 				if (o instanceof Type type)
 				{
-					interfaceNames.add(new TypeName(type, false, name.getQualifiedName(), "interface", warnings));
+					interfaceNames.add(typeNames.get(type, false, name::getQualifiedName, "interface", warnings));
 				}
 			}
 		}
 	}
 
-	public TypeMetaModel(String packageName, List<String> ancestorClassNames, EnumDeclaration astNode)
+	public TypeMetaModel(String packageName, List<String> ancestorClassNames, EnumDeclaration astNode, TypeNamePool typeNames)
 	{
 		this.isInterface = false;
+		this.isEnum = true;
 		this.typeParameters = new ArrayList<>();
 		String parentName = packageName + ".";
 		for (String s : ancestorClassNames)
@@ -134,12 +152,38 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 			{
 				if (o instanceof Type type)
 				{
-					interfaceNames.add(new TypeName(type, false, name.getQualifiedName(), "interface", warnings));
+					interfaceNames.add(typeNames.get(type, false, name::getQualifiedName, "interface", warnings));
 				}
 			}
 		}
 	}
 
+	private TypeMetaModel(TypeMetaModel original)
+	{
+		this.isInterface = original.isInterface;
+		this.isEnum = original.isEnum;
+		this.typeParameters = original.typeParameters;
+		this.name = original.name;
+		this.supertypeName = original.supertypeName;
+		this.interfaceNames.addAll(original.interfaceNames);
+		this.jd = original.jd;
+		this.ann = original.ann;
+		this.warnings.addAll(original.warnings);
+		for (Entry<String, IMemberMetaModel> entry : original.members.entrySet())
+		{
+			members.put(entry.getKey(), entry.getValue().copy());
+		}
+	}
+
+	/**
+	 * Returns a copy of this type which shares all parsed information, but has its own members, store and warnings,
+	 * so it can go through a documentation generator independently of the original.
+	 */
+	public TypeMetaModel copy()
+	{
+		return new TypeMetaModel(this);
+	}
+
 	public Map<String, Object> getStore()
 	{
 		return store;
@@ -187,7 +231,7 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 
 	public String getRealClassName()
 	{
-		ITypeBinding val = getAttribute(ATTRIBUTE_REAL_CLASS);
+		TypeName val = getAttribute(ATTRIBUTE_REAL_CLASS);
 		if (val == null)
 		{
 			AnnotationMetaModel amm = ann.getAnnotation(ANNOTATION_JS_REAL_CLASS);
@@ -284,7 +328,7 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 		return interfaceNames;
 	}
 
-	public List<TypeParameter> getTypeParameters()
+	public List<TypeParameterMetaModel> getTypeParameters()
 	{
 		return typeParameters;
 	}
@@ -302,6 +346,11 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 		return isInterface;
 	}
 
+	public boolean isEnum()
+	{
+		return isEnum;
+	}
+
 	public int compareTo(TypeMetaModel o)
 	{
 		// first compare the public names
@@ -325,59 +374,84 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 		{
 			return members.values();
 		}
-		return addMembersRecursively(this, null, holder, new TreeMap<String, IMemberMetaModel>()).values();
+		return getMemberTable(this, holder).getMembers(holder);
 	}
 
-	private static Map<String, IMemberMetaModel> addMembersRecursively(TypeMetaModel tmm, ITypeBinding[] typeArguments, MetaModelHolder holder,
-		Map<String, IMemberMetaModel> members)
+	/**
+	 * Returns the flattened members of the type, which are kept by the holder as long as none of the types they were
+	 * collected from changes its members.
+	 */
+	private static MemberTable getMemberTable(TypeMetaModel tmm, MetaModelHolder holder)
+	{
+		MemberTable table = holder.getMemberTable(tmm);
+		if (table == null)
+		{
+			table = new MemberTable();
+			addInheritedMembers(tmm, holder, table);
+			table.putDeclared(tmm, null, holder);
+			holder.putMemberTable(tmm, table);
+		}
+		return table;
+	}
+
+	private static void addInheritedMembers(TypeMetaModel tmm, MetaModelHolder holder, MemberTable table)
+	{
+		for (TypeName intf : tmm.getInterfaces())
+		{
+			addMembersRecursively(holder.getType(intf), intf.getTypeArguments(), holder, table);
+		}
+
+		TypeName supertype = tmm.getSupertype();
+		TypeName[] supertypeArgs = supertype != null && supertype.getTypeArguments().length > 0 ? supertype.getTypeArguments() : null;
+		addMembersRecursively(holder.getType(supertype), supertypeArgs, holder, table);
+	}
+
+	private static void addMembersRecursively(TypeMetaModel tmm, TypeName[] typeArguments, MetaModelHolder holder, MemberTable table)
 	{
 		if (tmm != null)
 		{
-			for (TypeName intf : tmm.getInterfaces())
+			if (typeArguments == null || tmm.getTypeParameters().isEmpty())
 			{
-				addMembersRecursively(holder.getType(intf), intf.getTypeArguments(), holder, members);
+				// the type arguments make no difference, so the flattened members of the type itself can be used
+				table.putAll(getMemberTable(tmm, holder));
 			}
-
-			TypeName supertype = tmm.getSupertype();
-			ITypeBinding[] supertypeArgs = supertype != null && supertype.getTypeArguments().length > 0 ? supertype.getTypeArguments() : null;
-			addMembersRecursively(holder.getType(supertype), supertypeArgs, holder, members);
-
-			for (Entry<String, IMemberMetaModel> entry : tmm.members.entrySet())
+			else
 			{
-				members.put(entry.getKey(), applyTypeArguments(entry.getValue(), typeArguments, holder));
+				addInheritedMembers(tmm, holder, table);
+				table.putDeclared(tmm, typeArguments, holder);
 			}
 		}
-		return members;
 	}
 
-	private static IMemberMetaModel applyTypeArguments(IMemberMetaModel member, ITypeBinding[] typeArguments, MetaModelHolder holder)
+	private static IMemberMetaModel applyTypeArguments(IMemberMetaModel member, TypeName[] typeArguments, MetaModelHolder holder)
+	{
+		TypeName boundType = getBoundType(member, typeArguments, holder);
+		return boundType != null ? member.withType(boundType) : member;
+	}
+
+	/**
+	 * Returns the type that replaces the type parameter used as the type of the member, or null if the member does not change.
+	 */
+	private static TypeName getBoundType(IMemberMetaModel member, TypeName[] typeArguments, MetaModelHolder holder)
 	{
 		if (member instanceof MethodMetaModel methodMetaModel)
 		{
 			TypeName methodMetaModelType = methodMetaModel.getType();
-			List<TypeParameter> typeParameters = methodMetaModel.getClassType(holder).getTypeParameters();
+			List<TypeParameterMetaModel> typeParameters = methodMetaModel.getClassType(holder).getTypeParameters();
 			if (methodMetaModelType != null && (typeParameters.size() > 0) && (typeArguments == null || (typeParameters.size() == typeArguments.length)))
 			{
 				for (int i = 0; i < typeParameters.size(); i++)
 				{
-					TypeParameter typeParameter = typeParameters.get(i);
-					String typeParameterName = typeParameter.getName().getIdentifier();
+					TypeParameterMetaModel typeParameter = typeParameters.get(i);
+					String typeParameterName = typeParameter.getName();
 					String typeGenericName = methodMetaModelType.getQualifiedName();
 					if (typeParameterName.equals(typeGenericName))
 					{
-						ITypeBinding boundType = null;
+						TypeName boundType = null;
 						if (typeArguments == null)
 						{
-							List< ? > typeBounds = typeParameter.typeBounds();
-							if (typeBounds != null && !typeBounds.isEmpty() && typeBounds.get(0) instanceof Type type)
-							{
-								// default to first type bound (erase parameterized types)
-								boundType = type.resolveBinding();
-								if (boundType != null && boundType.isParameterizedType())
-								{
-									boundType = boundType.getErasure();
-								}
-							}
+							// default to first type bound
+							boundType = typeParameter.getBound();
 						}
 						else
 						{
@@ -385,14 +459,14 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 						}
 						if (boundType != null)
 						{
-							return member.withType(boundType);
+							return boundType;
 						}
 					}
 				}
 			}
 		}
 
-		return member;
+		return null;
 	}
 
 	public IMemberMetaModel getMember(String memberName, MetaModelHolder holder)
@@ -402,42 +476,225 @@ public class TypeMetaModel implements Comparable<TypeMetaModel>, IPublicStore
 		{
 			return member;
 		}
+		return getMemberIndex(this, holder).members.get(memberName);
+	}
 
-		TypeMetaModel superType = holder.getType(getSupertype());
-		if (superType != null)
+	/**
+	 * Returns the members that {@link #getMember(String, MetaModelHolder)} can find in the type, which are kept by the holder
+	 * as long as none of the types they were collected from changes its members.
+	 */
+	private static MemberIndex getMemberIndex(TypeMetaModel tmm, MetaModelHolder holder)
+	{
+		MemberIndex index = holder.getMemberIndex(tmm);
+		if (index == null)
 		{
-			member = superType.getMember(memberName, holder);
+			index = new MemberIndex();
+			// the members of the supertypes win over those declared by the interfaces, the first interface wins over the next ones
+			List<TypeName> interfaces = tmm.getInterfaces();
+			for (int i = interfaces.size() - 1; i >= 0; i--)
+			{
+				TypeMetaModel intf = holder.getType(interfaces.get(i));
+				if (intf != null) index.putDeclared(intf);
+			}
+			TypeMetaModel superType = holder.getType(tmm.getSupertype());
+			if (superType != null) index.putAll(getMemberIndex(superType, holder));
+			index.putDeclared(tmm);
+			holder.putMemberIndex(tmm, index);
 		}
+		return index;
+	}
 
-		if (member != null)
-		{
-			return member;
-		}
+	/**
+	 * Returns the Javadoc of the member with the given index signature, as declared in this type or else inherited from the
+	 * supertypes (first) or the interfaces. Returns null if none of them documents the member.
+	 */
+	JavadocMetaModel getInheritedJavadoc(String memberName, MetaModelHolder holder)
+	{
+		return getInheritedJavadocs(this, holder).get(memberName);
+	}
 
-		for (TypeName i : getInterfaces())
+	private static InheritedJavadocs getInheritedJavadocs(TypeMetaModel tmm, MetaModelHolder holder)
+	{
+		InheritedJavadocs javadocs = holder.getInheritedJavadocs(tmm);
+		if (javadocs == null)
 		{
-			TypeMetaModel intf = holder.getType(i);
-			if (intf != null)
+			TypeMetaModel superType = holder.getType(tmm.getSupertype());
+			InheritedJavadocs superJavadocs = superType != null ? getInheritedJavadocs(superType, holder) : null;
+			List<InheritedJavadocs> interfacesJavadocs = new ArrayList<InheritedJavadocs>(tmm.getInterfaces().size());
+			for (TypeName intfName : tmm.getInterfaces())
 			{
-				member = intf.getMember(memberName, null);
-				if (member != null)
-				{
-					return member;
-				}
+				TypeMetaModel intf = holder.getType(intfName);
+				if (intf != null) interfacesJavadocs.add(getInheritedJavadocs(intf, holder));
 			}
+			javadocs = new InheritedJavadocs(tmm, superJavadocs, interfacesJavadocs);
+			holder.putInheritedJavadocs(tmm, javadocs);
 		}
-
-		return null;
+		return javadocs;
 	}
 
 	public void addMember(String memberName, IMemberMetaModel member)
 	{
 		members.put(memberName, member);
+		membersModCount++;
 	}
 
 	public void removeMember(String memberName)
 	{
 		members.remove(memberName);
+		membersModCount++;
+	}
+
+	/**
+	 * Members collected from a type and its supertypes. They are valid as long as none of the types they were collected
+	 * from changes its members.
+	 */
+	abstract static class DerivedMembers
+	{
+		// the types the members were collected from, with the members modification count they had at that moment
+		private final Map<TypeMetaModel, Integer> sources = new IdentityHashMap<TypeMetaModel, Integer>();
+
+		void addSource(TypeMetaModel tmm)
+		{
+			sources.put(tmm, Integer.valueOf(tmm.membersModCount));
+		}
+
+		void addSources(DerivedMembers other)
+		{
+			sources.putAll(other.sources);
+		}
+
+		boolean isUpToDate()
+		{
+			for (Entry<TypeMetaModel, Integer> entry : sources.entrySet())
+			{
+				if (entry.getKey().membersModCount != entry.getValue().intValue()) return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The members of a type together with all inherited members, ordered by their index signature. Members whose type
+	 * is given by the type arguments of a generic supertype are kept in their original form and specialized again each
+	 * time they are asked for, all the others are shared.
+	 */
+	static class MemberTable extends DerivedMembers
+	{
+		private final Map<String, IMemberMetaModel> members = new TreeMap<String, IMemberMetaModel>();
+		private final Collection<IMemberMetaModel> sharedMembers = Collections.unmodifiableCollection(members.values());
+		// type arguments (possibly null, for the default bounds) of the members that are specialized on use
+		private final Map<String, TypeName[]> specialized = new HashMap<String, TypeName[]>();
+
+		void putDeclared(TypeMetaModel tmm, TypeName[] typeArguments, MetaModelHolder holder)
+		{
+			addSource(tmm);
+			for (Entry<String, IMemberMetaModel> entry : tmm.members.entrySet())
+			{
+				IMemberMetaModel member = entry.getValue();
+				members.put(entry.getKey(), member);
+				if (getBoundType(member, typeArguments, holder) != null) specialized.put(entry.getKey(), typeArguments);
+				else specialized.remove(entry.getKey());
+			}
+		}
+
+		void putAll(MemberTable other)
+		{
+			addSources(other);
+			for (Entry<String, IMemberMetaModel> entry : other.members.entrySet())
+			{
+				members.put(entry.getKey(), entry.getValue());
+				if (other.specialized.containsKey(entry.getKey())) specialized.put(entry.getKey(), other.specialized.get(entry.getKey()));
+				else specialized.remove(entry.getKey());
+			}
+		}
+
+		Collection<IMemberMetaModel> getMembers(MetaModelHolder holder)
+		{
+			if (specialized.isEmpty()) return sharedMembers;
+			Map<String, IMemberMetaModel> result = new TreeMap<String, IMemberMetaModel>(members);
+			for (Entry<String, TypeName[]> entry : specialized.entrySet())
+			{
+				result.put(entry.getKey(), applyTypeArguments(members.get(entry.getKey()), entry.getValue(), holder));
+			}
+			return result.values();
+		}
+	}
+
+	/**
+	 * The members found by {@link TypeMetaModel#getMember(String, MetaModelHolder)}, by index signature: the declared ones,
+	 * those of the supertypes and those declared by the direct interfaces.
+	 */
+	static class MemberIndex extends DerivedMembers
+	{
+		private final Map<String, IMemberMetaModel> members = new HashMap<String, IMemberMetaModel>();
+
+		void putDeclared(TypeMetaModel tmm)
+		{
+			addSource(tmm);
+			members.putAll(tmm.members);
+		}
+
+		void putAll(MemberIndex other)
+		{
+			addSources(other);
+			members.putAll(other.members);
+		}
+	}
+
+	/**
+	 * The Javadocs of the members of a type, resolved through the supertypes and interfaces when the members are not documented
+	 * in the type itself. They are resolved on first use, members without any Javadoc are remembered as well.
+	 */
+	static class InheritedJavadocs extends DerivedMembers
+	{
+		private final TypeMetaModel tmm;
+		private final InheritedJavadocs superJavadocs;
+		private final List<InheritedJavadocs> interfacesJavadocs;
+		private final Map<String, JavadocMetaModel> javadocs = new HashMap<String, JavadocMetaModel>();
+
+		InheritedJavadocs(TypeMetaModel tmm, InheritedJavadocs superJavadocs, List<InheritedJavadocs> interfacesJavadocs)
+		{
+			this.tmm = tmm;
+			this.superJavadocs = superJavadocs;
+			this.interfacesJavadocs = interfacesJavadocs;
+			addSource(tmm);
+			if (superJavadocs != null) addSources(superJavadocs);
+			for (InheritedJavadocs intf : interfacesJavadocs)
+			{
+				addSources(intf);
+			}
+		}
+
+		JavadocMetaModel get(String memberName)
+		{
+			if (javadocs.containsKey(memberName)) return javadocs.get(memberName);
+			JavadocMetaModel jd = find(memberName);
+			javadocs.put(memberName, jd);
+			return jd;
+		}
+
+		private JavadocMetaModel find(String memberName)
+		{
+			IMemberMetaModel member = tmm.members.get(memberName);
+			if (member != null && member.getJavadoc(null) != null)
+			{
+				return member.getJavadoc(null);
+			}
+
+			// look in super class first, see for example QBFunctions.getParent
+			if (superJavadocs != null)
+			{
+				JavadocMetaModel superClassJavaDoc = superJavadocs.get(memberName);
+				if (superClassJavaDoc != null) return superClassJavaDoc;
+			}
+
+			for (InheritedJavadocs intf : interfacesJavadocs)
+			{
+				JavadocMetaModel jdoc = intf.get(memberName);
+				if (jdoc != null) return jdoc;
+			}
+			return null;
+		}
 	}
 
 	@Override
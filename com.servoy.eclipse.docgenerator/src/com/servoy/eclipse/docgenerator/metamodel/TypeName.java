@@ -21,6 +21,7 @@ import static com.servoy.eclipse.docgenerator.metamodel.IPublicStore.ANNOTATION_
 import static com.servoy.eclipse.docgenerator.metamodel.IPublicStore.ANNOTAION_JS_REAL_CLASS_NAME;
 import static java.util.Arrays.stream;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Set;
 
@@ -43,9 +44,9 @@ import com.servoy.eclipse.docgenerator.metamodel.DocumentationWarning.WarningTyp
  *
  * @author gerzse
  */
-public class TypeName
+public class TypeName implements Serializable
 {
-	private static final ITypeBinding[] NO_TYPE_ARGUMENTS = new ITypeBinding[0];
+	private static final TypeName[] NO_TYPE_ARGUMENTS = new TypeName[0];
 
 	/**
 	 * Holds the qualified name of the base form of this type (no array or generics information).
@@ -74,10 +75,11 @@ public class TypeName
 	 * Holds the short name of the class, without package information, but with array
 	 * information, if any. This is needed because we map for example from the java.lang.String
 	 * class to a fake String class that is used only for documentation purposes.
+	 * It is built the first time it is asked for.
 	 *
 	 * @see buildShortName()
 	 */
-	private final String shortName;
+	private String shortName;
 
 	/**
 	 * Holds the binary name of the base form of this type (no array information, no generics).
@@ -89,11 +91,11 @@ public class TypeName
 
 	/**
 	 * The binary name of the class. This can be used to load the class with Class.forName(...)
-	 * for example.
+	 * for example. It is built the first time it is asked for, unless given explicitly.
 	 *
 	 * @see buildBinaryName()
 	 */
-	private final String binaryName;
+	private String binaryName;
 
 	/**
 	 * Number of dimensions in case of array types. It is 0 if the type is not an array type.
@@ -117,9 +119,51 @@ public class TypeName
 
 	private final boolean varargs;
 
-	private final ITypeBinding[] typeArguments;
+	/**
+	 * The type arguments, in case of parameterized types. They are converted to type names right away,
+	 * so that no type bindings (and through them no ASTs) are kept alive.
+	 */
+	private final TypeName[] typeArguments;
+
+	/**
+	 * The names of the binding this type was created from, for array, parameterized and nested types, where they
+	 * cannot be derived from the names above. They are used when this type replaces a type parameter.
+	 *
+	 * @see withType(TypeName)
+	 */
+	private final BindingNames bindingNames;
+
+	/**
+	 * The identity of the base form of this type, in the format of the JDT binding keys ("Ljava/util/List;").
+	 * For classes, interfaces and enums created from a binding this is the key of the binding, otherwise
+	 * it is built from the base qualified name in the same format, so that both kinds of names can be compared.
+	 *
+	 * @see getClassKey(ITypeBinding, String, String, String)
+	 * @see buildKey(String)
+	 */
+	private final String baseKey;
+
+	/**
+	 * The identity of this type: the base key with a '[' in front of it for each array dimension.
+	 * Two type names are equal if their keys are equal.
+	 */
+	private final String key;
+
+	/**
+	 * The same as the base key, but for the base binary name. It differs from the base key only when the two
+	 * names differ, for example after changeBaseTo(TypeName). The types are looked up by it in the MetaModelHolder.
+	 */
+	private final String baseBinaryKey;
 
 	public TypeName(ITypeBinding binding, boolean varargs)
+	{
+		this(binding, varargs, null);
+	}
+
+	/**
+	 * Same as above, with the key of the binding, if it is already known.
+	 */
+	TypeName(ITypeBinding binding, boolean varargs, String bindingKey)
 	{
 		this.varargs = varargs;
 		ITypeBinding inner = binding;
@@ -139,7 +183,7 @@ public class TypeName
 		}
 		if (inner.isParameterizedType())
 		{
-			typeArguments = inner.getTypeArguments();
+			typeArguments = toTypeNames(inner.getTypeArguments());
 			inner = inner.getErasure();
 		}
 		else
@@ -158,9 +202,12 @@ public class TypeName
 		baseQualifiedName = adaptQualifiedName(inner.getQualifiedName());
 		realClassName = getRealClass(inner);
 		baseBinaryName = ifnull(inner.getBinaryName(), baseQualifiedName);
-		shortName = buildShortName(baseBinaryName, dimensions);
+		bindingNames = inner != binding || nesting > 0 ? new BindingNames(binding) : null;
 		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
-		binaryName = buildBinaryName(baseBinaryName, baseQualifiedName, dimensions, primitive);
+		String classKey = getClassKey(inner, inner == binding ? bindingKey : null, baseQualifiedName, baseBinaryName);
+		baseKey = classKey != null ? classKey : buildKey(baseQualifiedName);
+		baseBinaryKey = classKey != null ? classKey : buildBinaryKey(baseBinaryName, baseQualifiedName, baseKey);
+		key = buildArrayKey(baseKey, dimensions);
 	}
 
 	/**
@@ -172,6 +219,7 @@ public class TypeName
 	public TypeName(Type type, boolean varargs, String location, String context, Set<DocumentationWarning> warnings)
 	{
 		this.varargs = varargs;
+		String classKey = null;
 		// Try to resolve the binding.
 		ITypeBinding binding = type.resolveBinding();
 		// If binding was resolved, then use it to extract the names.
@@ -195,7 +243,7 @@ public class TypeName
 
 			if (inner.isParameterizedType())
 			{
-				typeArguments = inner.getTypeArguments();
+				typeArguments = toTypeNames(inner.getTypeArguments());
 				inner = inner.getErasure();
 			}
 			else
@@ -215,6 +263,8 @@ public class TypeName
 			baseQualifiedName = adaptQualifiedName(inner.getQualifiedName());
 			realClassName = getRealClass(inner);
 			baseBinaryName = ifnull(inner.getBinaryName(), baseQualifiedName);
+			bindingNames = inner != binding || nesting > 0 ? new BindingNames(binding) : null;
+			classKey = getClassKey(inner, null, baseQualifiedName, baseBinaryName);
 		}
 		// If the binding was not resolved, then use the type name anyway.
 		// This may not be accurate, but is better than nothing.
@@ -238,14 +288,16 @@ public class TypeName
 			nestingLevel = 0;
 			realClassName = null;
 			baseBinaryName = baseQualifiedName;
+			bindingNames = null;
 			primitive = type.isPrimitiveType();
 			DocumentationWarning dw = new DocumentationWarning(WarningType.UnresolvedBinding, location, "Cannot resolve binding for " + context + " type: '" +
 				baseQualifiedName + "'.");
 			warnings.add(dw);
 		}
-		shortName = buildShortName(baseBinaryName, dimensions);
 		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
-		binaryName = buildBinaryName(baseBinaryName, baseQualifiedName, dimensions, primitive);
+		baseKey = classKey != null ? classKey : buildKey(baseQualifiedName);
+		baseBinaryKey = classKey != null ? classKey : buildBinaryKey(baseBinaryName, baseQualifiedName, baseKey);
+		key = buildArrayKey(baseKey, dimensions);
 	}
 
 	public static String getRealClass(ITypeBinding binding)
@@ -289,10 +341,12 @@ public class TypeName
 		baseQualifiedName = sb.toString();
 		realClassName = null;
 		baseBinaryName = baseQualifiedName;
+		bindingNames = null;
 		primitive = false;
-		shortName = buildShortName(baseBinaryName, dimensions);
 		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
-		binaryName = buildBinaryName(baseBinaryName, baseQualifiedName, dimensions, primitive);
+		baseKey = buildKey(baseQualifiedName);
+		baseBinaryKey = baseKey;
+		key = baseKey;
 	}
 
 	/**
@@ -320,33 +374,38 @@ public class TypeName
 		baseQualifiedName = adaptQualifiedName(cls.getCanonicalName());
 		realClassName = null;
 		baseBinaryName = cls.getName();
+		bindingNames = null;
 		primitive = cls.isPrimitive();
 		varargs = false;
-		shortName = buildShortName(baseBinaryName, dimensions);
 		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
-		binaryName = buildBinaryName(baseBinaryName, baseQualifiedName, dimensions, primitive);
+		baseKey = buildKey(baseQualifiedName);
+		baseBinaryKey = buildBinaryKey(baseBinaryName, baseQualifiedName, baseKey);
+		key = buildArrayKey(baseKey, dimensions);
 	}
 
 	/**
 	 * Construct a new instance based on an existing instance, by changing only the binary name and
 	 * the array information.
 	 */
-	private TypeName(TypeName source, String baseBinaryName, String binaryName, int newDimensions)
+	private TypeName(TypeName source, String baseBinaryName, String baseBinaryKey, String binaryName, int newDimensions)
 	{
 		this.baseQualifiedName = source.baseQualifiedName;
 		this.realClassName = source.realClassName;
 		this.nestingLevel = source.nestingLevel;
 		this.baseBinaryName = baseBinaryName;
+		this.baseBinaryKey = baseBinaryKey;
 		this.binaryName = binaryName;
 		this.varargs = source.varargs;
 		typeArguments = NO_TYPE_ARGUMENTS;
+		bindingNames = null;
 		dimensions = newDimensions;
 		primitive = source.primitive;
-		shortName = buildShortName(baseBinaryName, dimensions);
 		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
+		baseKey = source.baseKey;
+		key = buildArrayKey(baseKey, dimensions);
 	}
 
-	private TypeName(TypeName original, ITypeBinding typeArgument)
+	private TypeName(TypeName original, TypeName typeArgument)
 	{
 		this.nestingLevel = original.nestingLevel;
 		this.varargs = original.varargs;
@@ -354,13 +413,55 @@ public class TypeName
 		this.dimensions = original.dimensions;
 
 		typeArguments = NO_TYPE_ARGUMENTS;
+		bindingNames = null;
 
-		baseQualifiedName = adaptQualifiedName(typeArgument.getQualifiedName());
-		realClassName = getRealClass(typeArgument);
-		baseBinaryName = typeArgument.getBinaryName();
-		shortName = buildShortName(baseBinaryName, dimensions);
+		// the names of the binding of the type argument, adapted to the nesting level of the original type
+		if (typeArgument.bindingNames != null)
+		{
+			baseQualifiedName = adaptQualifiedName(typeArgument.bindingNames.qualifiedName);
+			realClassName = typeArgument.bindingNames.realClassName;
+			baseBinaryName = ifnull(typeArgument.bindingNames.binaryName, baseQualifiedName);
+		}
+		else
+		{
+			baseQualifiedName = adaptQualifiedName(typeArgument.baseQualifiedName);
+			realClassName = typeArgument.realClassName;
+			baseBinaryName = typeArgument.baseBinaryName;
+		}
 		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
-		binaryName = buildBinaryName(baseBinaryName, baseQualifiedName, dimensions, primitive);
+		baseKey = buildKey(baseQualifiedName);
+		baseBinaryKey = buildBinaryKey(baseBinaryName, baseQualifiedName, baseKey);
+		key = buildArrayKey(baseKey, dimensions);
+	}
+
+	/**
+	 * Construct a new instance based on an existing instance, used as the type of a varargs parameter.
+	 */
+	private TypeName(TypeName source, boolean varargs)
+	{
+		this.baseQualifiedName = source.baseQualifiedName;
+		this.realClassName = source.realClassName;
+		this.nestingLevel = source.nestingLevel;
+		this.baseBinaryName = source.baseBinaryName;
+		this.varargs = varargs;
+		this.typeArguments = source.typeArguments;
+		this.bindingNames = source.bindingNames;
+		this.primitive = source.primitive;
+		dimensions = varargs ? 1 : source.dimensions;
+		qualifiedName = buildQualifiedName(baseQualifiedName, dimensions);
+		baseKey = source.baseKey;
+		baseBinaryKey = source.baseBinaryKey;
+		key = buildArrayKey(baseKey, dimensions);
+	}
+
+	private static TypeName[] toTypeNames(ITypeBinding[] bindings)
+	{
+		TypeName[] names = new TypeName[bindings.length];
+		for (int i = 0; i < bindings.length; i++)
+		{
+			names[i] = new TypeName(bindings[i], false);
+		}
+		return names;
 	}
 
 	/**
@@ -373,6 +474,7 @@ public class TypeName
 
 	public String getShortName()
 	{
+		if (shortName == null) shortName = buildShortName(baseBinaryName, dimensions);
 		return shortName;
 	}
 
@@ -398,22 +500,33 @@ public class TypeName
 
 	public String getBinaryName()
 	{
+		if (binaryName == null) binaryName = buildBinaryName(baseBinaryName, baseQualifiedName, dimensions, primitive);
 		return binaryName;
 	}
 
-	public ITypeBinding[] getTypeArguments()
+	public TypeName[] getTypeArguments()
 	{
 		return typeArguments;
 	}
 
+	public String getKey()
+	{
+		return key;
+	}
+
+	public String getBaseBinaryKey()
+	{
+		return baseBinaryKey;
+	}
+
 	/**
-	 * Two types are the same if their base qualified names are the same.
+	 * Two types are the same if their base keys are the same.
 	 */
 	public boolean isSameType(TypeName other)
 	{
 		if (other != null)
 		{
-			return baseQualifiedName.equals(other.baseQualifiedName);
+			return baseKey.equals(other.baseKey);
 		}
 		return false;
 	}
@@ -425,14 +538,23 @@ public class TypeName
 	 */
 	public TypeName changeBaseTo(TypeName src)
 	{
-		return new TypeName(src, baseBinaryName, binaryName, dimensions);
+		return new TypeName(src, baseBinaryName, baseBinaryKey, getBinaryName(), dimensions);
 	}
 
-	public TypeName withType(ITypeBinding typeArgument)
+	public TypeName withType(TypeName typeArgument)
 	{
 		return new TypeName(this, typeArgument);
 	}
 
+	/**
+	 * Returns the same type, used as the type of a varargs parameter (if varargs is true) or of a regular parameter.
+	 */
+	public TypeName withVarargs(boolean isVarargs)
+	{
+		if (isVarargs == varargs) return this;
+		return new TypeName(this, isVarargs);
+	}
+
 	/**
 	 * Build the base qualified name, starting from the raw qualified name and
 	 * given a nesting level. Basically replaces the last '.' separators with '$'.
@@ -461,7 +583,8 @@ public class TypeName
 	 */
 	private static String buildQualifiedName(String baseQualifiedName, int dimensions)
 	{
-		StringBuffer sb = new StringBuffer();
+		if (dimensions == 0) return baseQualifiedName;
+		StringBuilder sb = new StringBuilder(baseQualifiedName.length() + 2 * dimensions);
 		sb.append(baseQualifiedName);
 		for (int i = 0; i < dimensions; i++)
 			sb.append("[]");
@@ -521,6 +644,49 @@ public class TypeName
 		return sb.toString();
 	}
 
+	/**
+	 * The key of the given class, interface or enum binding, if it is the same as the key built from both its base
+	 * qualified name and its base binary name (see buildKey(String)), null otherwise. The keys of generic, local,
+	 * secondary and unresolved types hold more than the name, these and the other kinds of types use the built key.
+	 */
+	private static String getClassKey(ITypeBinding binding, String knownKey, String baseQualifiedName, String baseBinaryName)
+	{
+		if (!binding.isClass() && !binding.isInterface() && !binding.isEnum()) return null;
+		if (binding.isGenericType() || binding.isLocal() || binding.isRecovered() || !baseQualifiedName.equals(baseBinaryName)) return null;
+		String bindingKey = knownKey != null ? knownKey : binding.getKey();
+		if (bindingKey == null || bindingKey.length() != baseQualifiedName.length() + 2) return null;
+		if (bindingKey.charAt(0) != 'L' || bindingKey.charAt(bindingKey.length() - 1) != ';') return null;
+		for (int i = 0; i < baseQualifiedName.length(); i++)
+		{
+			char c = baseQualifiedName.charAt(i);
+			if (bindingKey.charAt(i + 1) != (c == '.' ? '/' : c)) return null;
+		}
+		return bindingKey;
+	}
+
+	/**
+	 * Builds the key of a type from its base (qualified or binary) name, in the format of the JDT binding keys.
+	 */
+	static String buildKey(String baseName)
+	{
+		return 'L' + baseName.replace('.', '/') + ';';
+	}
+
+	private static String buildBinaryKey(String baseBinaryName, String baseQualifiedName, String baseKey)
+	{
+		return baseBinaryName.equals(baseQualifiedName) ? baseKey : buildKey(baseBinaryName);
+	}
+
+	private static String buildArrayKey(String baseKey, int dimensions)
+	{
+		if (dimensions == 0) return baseKey;
+		StringBuilder sb = new StringBuilder(baseKey.length() + dimensions);
+		for (int i = 0; i < dimensions; i++)
+			sb.append('[');
+		sb.append(baseKey);
+		return sb.toString();
+	}
+
 	private static String ifnull(String string1, String string2)
 	{
 		if (string1 == null)
@@ -533,25 +699,19 @@ public class TypeName
 	@Override
 	public int hashCode()
 	{
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((qualifiedName == null) ? 0 : qualifiedName.hashCode());
-		return result;
+		return key.hashCode();
 	}
 
+	/**
+	 * Two type names are equal if their keys are equal, which is the case when their qualified names are equal.
+	 */
 	@Override
 	public boolean equals(Object obj)
 	{
 		if (this == obj) return true;
 		if (obj == null) return false;
 		if (getClass() != obj.getClass()) return false;
-		TypeName other = (TypeName)obj;
-		if (qualifiedName == null)
-		{
-			if (other.qualifiedName != null) return false;
-		}
-		else if (!qualifiedName.equals(other.qualifiedName)) return false;
-		return true;
+		return key.equals(((TypeName)obj).key);
 	}
 
 	@Override
@@ -559,4 +719,21 @@ public class TypeName
 	{
 		return "TypeName[" + getQualifiedName() + ':' + getBinaryName() + ']';
 	}
+
+	/**
+	 * The qualified name, binary name and real class name of a type binding, as JDT gives them.
+	 */
+	private static final class BindingNames implements Serializable
+	{
+		private final String qualifiedName;
+		private final String binaryName;
+		private final String realClassName;
+
+		private BindingNames(ITypeBinding binding)
+		{
+			qualifiedName = binding.getQualifiedName();
+			binaryName = binding.getBinaryName();
+			realClassName = getRealClass(binding);
+		}
+	}
 }
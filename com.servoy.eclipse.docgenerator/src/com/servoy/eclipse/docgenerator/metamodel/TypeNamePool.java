@@ -0,0 +1,63 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.metamodel;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.Type;
+
+/**
+ * Canonical type names for one documentation build. The same type is referenced from thousands of members
+ * (String, Object, the Servoy types), so the type names are kept by the key of their binding and shared,
+ * and their names are built only once. The key of the binding also serves as the identity of the shared type names
+ * of classes (see TypeName#getKey()). Types whose bindings cannot be resolved are not pooled.
+ *
+ * The pool can be used from several parser threads at the same time.
+ */
+public class TypeNamePool
+{
+	private final ConcurrentMap<String, TypeName> names = new ConcurrentHashMap<String, TypeName>();
+	private final ConcurrentMap<String, TypeName> varargsNames = new ConcurrentHashMap<String, TypeName>();
+
+	public TypeName get(ITypeBinding binding, boolean varargs)
+	{
+		String key = binding.getKey();
+		if (key == null) return new TypeName(binding, varargs);
+		return (varargs ? varargsNames : names).computeIfAbsent(key, k -> new TypeName(binding, varargs, k));
+	}
+
+	/**
+	 * Same as {@link TypeName#TypeName(Type, boolean, String, String, Set)}, but shared when the binding of the type is resolved.
+	 * The location is only built when a warning is raised for an unresolved binding.
+	 */
+	public TypeName get(Type type, boolean varargs, Supplier<String> location, String context, Set<DocumentationWarning> warnings)
+	{
+		ITypeBinding binding = type.resolveBinding();
+		if (binding == null) return new TypeName(type, varargs, location.get(), context, warnings);
+		return get(binding, varargs);
+	}
+
+	public int size()
+	{
+		return names.size() + varargsNames.size();
+	}
+}
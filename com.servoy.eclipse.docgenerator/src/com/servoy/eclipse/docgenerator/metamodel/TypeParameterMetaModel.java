@@ -0,0 +1,67 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.metamodel;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeParameter;
+
+/**
+ * Holds the information about a type parameter of a generic class that is needed when resolving
+ * inherited members: the name of the parameter and the erasure of its first bound, if any.
+ *
+ * It is built from the JDT type parameter, but keeps no reference to it, so the AST can be released.
+ */
+public class TypeParameterMetaModel implements Serializable
+{
+	private final String name;
+	private final TypeName bound;
+
+	public TypeParameterMetaModel(TypeParameter astNode, TypeNamePool typeNames)
+	{
+		name = astNode.getName().getIdentifier();
+		TypeName firstBound = null;
+		List< ? > typeBounds = astNode.typeBounds();
+		if (typeBounds != null && !typeBounds.isEmpty() && typeBounds.get(0) instanceof Type type)
+		{
+			// erase parameterized types
+			ITypeBinding binding = type.resolveBinding();
+			if (binding != null)
+			{
+				firstBound = typeNames.get(binding.isParameterizedType() ? binding.getErasure() : binding, false);
+			}
+		}
+		bound = firstBound;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * The erasure of the first bound of the type parameter, or null if it has no bound (or the bound cannot be resolved).
+	 */
+	public TypeName getBound()
+	{
+		return bound;
+	}
+}
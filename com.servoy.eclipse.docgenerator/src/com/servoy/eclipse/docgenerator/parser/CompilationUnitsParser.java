@@ -0,0 +1,499 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import com.servoy.eclipse.docgenerator.metamodel.AnnotationPool;
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.metamodel.TypeNamePool;
+import com.servoy.eclipse.docgenerator.service.DocumentationGenerationRequest;
+import com.servoy.eclipse.docgenerator.service.LogUtil;
+
+/**
+ * Parses the compilation units of a set of packages and sends the resulting ASTs to a Javadoc extractor.
+ *
+ * All compilation units that belong to the same Java project are handed in one batch to
+ * {@link ASTParser#createASTs}, so the name environment is built only once per project and the
+ * bindings of shared supertypes and annotations are resolved only once for the whole batch.
+ * Optionally the compilation units can be spread over several worker threads. The progress is always
+ * reported from the thread that started the parsing.
+ *
+ * When an extraction cache is set, each compilation unit is extracted with its own extractor, so that its types
+ * can be stored in the cache separately, and unchanged compilation units are read from the cache instead of being parsed.
+ */
+public class CompilationUnitsParser
+{
+	private static final long PROGRESS_INTERVAL = 200; // milliseconds between progress reports while waiting for the workers
+
+	private final ASTParser parser;
+	private final DocumentationGenerationRequest req;
+
+	private int startPercent;
+	private int endPercent;
+	private int reserve;
+	private int total;
+	private int visited;
+	private int lastPercent;
+	private Thread callingThread;
+
+	private int parallelism = 1;
+	private ExtractionCache extractionCache;
+	private Map<ICompilationUnit, MetaModelHolder> preExtractedUnits;
+	private WorkspacePackageIndex packageIndex;
+	private boolean lightweightJavadocs;
+	private TypeNamePool typeNamePool;
+	private AnnotationPool annotationPool;
+
+	public CompilationUnitsParser(ASTParser parser, DocumentationGenerationRequest req)
+	{
+		this.parser = parser;
+		this.req = req;
+	}
+
+	/**
+	 * Sets up progress reporting. The progress goes from startPercent to endPercent - reserve, as the
+	 * total number of compilation units gets parsed.
+	 */
+	public void setProgressRange(int startPercent, int endPercent, int reserve, int total)
+	{
+		this.startPercent = startPercent;
+		this.endPercent = endPercent;
+		this.reserve = reserve;
+		this.total = total;
+		this.visited = 0;
+		this.lastPercent = startPercent;
+	}
+
+	/**
+	 * Sets the number of worker threads used for parsing. Values smaller than 2 mean sequential parsing.
+	 */
+	public void setParallelism(int parallelism)
+	{
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * When set, the types of the compilation units are taken from the given cache when they are up to date, and the types
+	 * of all parsed compilation units are stored in it. The cache is also called from the worker threads.
+	 */
+	public void setExtractionCache(ExtractionCache extractionCache)
+	{
+		this.extractionCache = extractionCache;
+	}
+
+	/**
+	 * Sets the types that were already extracted from some compilation units, so that these are not parsed again.
+	 */
+	public void setPreExtractedUnits(Map<ICompilationUnit, MetaModelHolder> preExtractedUnits)
+	{
+		this.preExtractedUnits = preExtractedUnits;
+	}
+
+	/**
+	 * When set, the compilation units of the packages are taken from the given index instead of the Java model.
+	 */
+	public void setPackageIndex(WorkspacePackageIndex packageIndex)
+	{
+		this.packageIndex = packageIndex;
+	}
+
+	/**
+	 * When set, the compilation units are parsed without doc comment support and the extractors tokenize
+	 * only the Javadocs that may be documented.
+	 */
+	public void setLightweightJavadocs(boolean lightweightJavadocs)
+	{
+		this.lightweightJavadocs = lightweightJavadocs;
+	}
+
+	/**
+	 * When set, all extractors share the given pool of type names.
+	 */
+	public void setTypeNamePool(TypeNamePool typeNamePool)
+	{
+		this.typeNamePool = typeNamePool;
+	}
+
+	/**
+	 * When set, all extractors share the given pool of annotations.
+	 */
+	public void setAnnotationPool(AnnotationPool annotationPool)
+	{
+		this.annotationPool = annotationPool;
+	}
+
+	/**
+	 * Collects the compilation units of the given packages, in package order.
+	 */
+	public List<ICompilationUnit> collectUnits(List<IPackageFragment> packages) throws JavaModelException
+	{
+		List<ICompilationUnit> units = new ArrayList<ICompilationUnit>();
+		for (int i = 0; i < packages.size() && !req.cancelRequested(); i++)
+		{
+			IPackageFragment pkg = packages.get(i);
+			LogUtil.logger().fine("Collecting compilation units from package '" + pkg.getElementName() + "'.");
+			Collections.addAll(units, packageIndex != null ? packageIndex.getCompilationUnits(pkg) : pkg.getCompilationUnits());
+		}
+		return units;
+	}
+
+	/**
+	 * Parses all compilation units from the given packages and sends them to the extractor.
+	 */
+	public void parse(List<IPackageFragment> packages, JavadocExtractor extractor) throws JavaModelException
+	{
+		parseUnits(collectUnits(packages), extractor);
+	}
+
+	/**
+	 * Parses the given compilation units and sends them to the extractor.
+	 * Compilation units that were already extracted (see {@link #extractUnits(List)}) are not parsed again,
+	 * their types are added directly to the holder of the extractor.
+	 */
+	public void parseUnits(List<ICompilationUnit> units, JavadocExtractor extractor)
+	{
+		if (extractionCache != null)
+		{
+			// the types of each compilation unit must be kept apart, so that they can be stored in the cache
+			for (MetaModelHolder extracted : extractUnits(units).values())
+			{
+				extractor.getRawDataHolder().addAll(extracted);
+			}
+			return;
+		}
+
+		callingThread = Thread.currentThread();
+		List<ICompilationUnit> toParse = units;
+		if (preExtractedUnits != null && !preExtractedUnits.isEmpty())
+		{
+			toParse = new ArrayList<ICompilationUnit>();
+			List<ICompilationUnit> reused = new ArrayList<ICompilationUnit>();
+			for (ICompilationUnit unit : units)
+			{
+				// each extracted unit is used only once, because the generators store their data in the types
+				MetaModelHolder extracted = preExtractedUnits.remove(unit);
+				if (extracted != null)
+				{
+					extractor.getRawDataHolder().addAll(extracted);
+					reused.add(unit);
+					unitVisited();
+				}
+				else
+				{
+					toParse.add(unit);
+				}
+			}
+			if (reused.size() > 0) LogUtil.logger().fine("Reused the extracted types of " + reused.size() + " compilation units.");
+		}
+
+		int workers = Math.min(parallelism, toParse.size());
+		if (workers < 2)
+		{
+			parseBatches(parser, toParse, unit -> extractor);
+		}
+		else
+		{
+			parseInParallel(toParse, workers, extractor);
+		}
+	}
+
+	/**
+	 * Parses the given compilation units, each of them with a separate extractor, and returns the types extracted from each
+	 * compilation unit, in the order of the compilation units. If these are passed to {@link #setPreExtractedUnits(Map)},
+	 * the compilation units will not be parsed again. Compilation units that were already extracted or that are up to date
+	 * in the extraction cache are not parsed.
+	 */
+	public Map<ICompilationUnit, MetaModelHolder> extractUnits(List<ICompilationUnit> units)
+	{
+		callingThread = Thread.currentThread();
+		Map<ICompilationUnit, MetaModelHolder> extracted = new LinkedHashMap<ICompilationUnit, MetaModelHolder>();
+		List<ICompilationUnit> toParse = new ArrayList<ICompilationUnit>();
+		int reused = 0;
+		int cached = 0;
+		for (ICompilationUnit unit : units)
+		{
+			// each extracted unit is used only once, because the generators store their data in the types
+			MetaModelHolder holder = preExtractedUnits != null ? preExtractedUnits.remove(unit) : null;
+			if (holder != null) reused++;
+			else if (extractionCache != null && (holder = extractionCache.load(unit)) != null) cached++;
+
+			// the units to parse get a placeholder for now, so the order is kept
+			extracted.put(unit, holder);
+			if (holder != null) unitVisited();
+			else toParse.add(unit);
+		}
+		if (reused > 0) LogUtil.logger().fine("Reused the extracted types of " + reused + " compilation units.");
+		if (cached > 0) LogUtil.logger().fine("Read the types of " + cached + " compilation units from the extraction cache.");
+
+		int workers = Math.min(parallelism, toParse.size());
+		if (workers < 2)
+		{
+			extractBatches(parser, toParse, extracted);
+		}
+		else
+		{
+			for (Map<ICompilationUnit, MetaModelHolder> chunkExtracted : runInParallel(toParse, workers, chunk -> {
+				Map<ICompilationUnit, MetaModelHolder> workerExtracted = new LinkedHashMap<ICompilationUnit, MetaModelHolder>();
+				extractBatches(ASTParser.newParser(AST.JLS3), chunk, workerExtracted);
+				return workerExtracted;
+			}))
+			{
+				extracted.putAll(chunkExtracted);
+			}
+		}
+
+		// units that were not parsed because of cancellation
+		extracted.values().removeIf(Objects::isNull);
+		return extracted;
+	}
+
+	private void extractBatches(ASTParser astParser, List<ICompilationUnit> units, final Map<ICompilationUnit, MetaModelHolder> extracted)
+	{
+		parseBatches(astParser, units, new Function<ICompilationUnit, JavadocExtractor>()
+		{
+			public JavadocExtractor apply(ICompilationUnit unit)
+			{
+				JavadocExtractor unitExtractor = new JavadocExtractor();
+				extracted.put(unit, unitExtractor.getRawDataHolder());
+				return unitExtractor;
+			}
+		});
+	}
+
+	/**
+	 * Each worker has its own parser and extractor. When all workers are done, their holders are merged into
+	 * the holder of the given extractor in chunk order, so the result is the same as when parsing sequentially.
+	 */
+	private void parseInParallel(List<ICompilationUnit> units, int workers, JavadocExtractor extractor)
+	{
+		for (JavadocExtractor workerExtractor : runInParallel(units, workers, chunk -> {
+			JavadocExtractor chunkExtractor = new JavadocExtractor();
+			parseBatches(ASTParser.newParser(AST.JLS3), chunk, unit -> chunkExtractor);
+			return chunkExtractor;
+		}))
+		{
+			extractor.getRawDataHolder().addAll(workerExtractor.getRawDataHolder());
+		}
+	}
+
+	/**
+	 * Splits the compilation units in contiguous chunks, one for each worker, and returns the results of the workers
+	 * in chunk order. The workers only count the parsed compilation units, the progress is reported from this thread
+	 * while it waits for them.
+	 */
+	private <T> List<T> runInParallel(List<ICompilationUnit> units, int workers, final Function<List<ICompilationUnit>, T> task)
+	{
+		LogUtil.logger().fine("Parsing " + units.size() + " compilation units with " + workers + " workers.");
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try
+		{
+			List<Future<T>> futures = new ArrayList<Future<T>>();
+			int chunkSize = (units.size() + workers - 1) / workers;
+			for (int from = 0; from < units.size(); from += chunkSize)
+			{
+				final List<ICompilationUnit> chunk = units.subList(from, Math.min(from + chunkSize, units.size()));
+				futures.add(executor.submit(new Callable<T>()
+				{
+					public T call()
+					{
+						return task.apply(chunk);
+					}
+				}));
+			}
+			List<T> results = new ArrayList<T>(futures.size());
+			for (Future<T> future : futures)
+			{
+				results.add(waitFor(future));
+			}
+			return results;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException("Parsing was interrupted.");
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			throw new RuntimeException(e.getCause());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits for the result of a worker and reports the progress of all workers in the meantime.
+	 */
+	private <T> T waitFor(Future<T> result) throws InterruptedException, ExecutionException
+	{
+		while (true)
+		{
+			try
+			{
+				T value = result.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+				reportProgress();
+				return value;
+			}
+			catch (TimeoutException e)
+			{
+				reportProgress();
+			}
+		}
+	}
+
+	/**
+	 * Parses the given compilation units with the given parser, in one batch per project. Each AST is sent
+	 * to the extractor returned for its compilation unit.
+	 */
+	private void parseBatches(ASTParser astParser, List<ICompilationUnit> units, final Function<ICompilationUnit, JavadocExtractor> extractors)
+	{
+		// Group the compilation units by project, the bindings of a batch are resolved against a single project.
+		Map<IJavaProject, List<ICompilationUnit>> unitsByProject = new LinkedHashMap<IJavaProject, List<ICompilationUnit>>();
+		for (ICompilationUnit unit : units)
+		{
+			List<ICompilationUnit> projectUnits = unitsByProject.get(unit.getJavaProject());
+			if (projectUnits == null)
+			{
+				projectUnits = new ArrayList<ICompilationUnit>();
+				unitsByProject.put(unit.getJavaProject(), projectUnits);
+			}
+			projectUnits.add(unit);
+		}
+
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		for (Map.Entry<IJavaProject, List<ICompilationUnit>> entry : unitsByProject.entrySet())
+		{
+			if (req.cancelRequested()) break;
+
+			ICompilationUnit[] batch = entry.getValue().toArray(new ICompilationUnit[entry.getValue().size()]);
+			LogUtil.logger().fine("Parsing " + batch.length + " compilation units from project '" + entry.getKey().getElementName() + "' in one batch.");
+
+			// We must reconfigure the parser each time, because createASTs clears all settings.
+			astParser.setResolveBindings(true);
+			astParser.setIgnoreMethodBodies(true);
+			astParser.setProject(entry.getKey());
+			if (lightweightJavadocs)
+			{
+				Map<String, String> options = entry.getKey().getOptions(true);
+				options.put(JavaCore.COMPILER_DOC_COMMENT_SUPPORT, JavaCore.DISABLED);
+				astParser.setCompilerOptions(options);
+			}
+
+			try
+			{
+				astParser.createASTs(batch, new String[0], new ASTRequestor()
+				{
+					@Override
+					public void acceptAST(ICompilationUnit source, CompilationUnit ast)
+					{
+						if (req.cancelRequested())
+						{
+							monitor.setCanceled(true);
+							return;
+						}
+						String allCode = getSource(source);
+						JavadocExtractor extractor = extractors.apply(source);
+						extractor.setSourceCodeTracker(allCode != null ? new SourceCodeTracker(allCode) : null);
+						extractor.setLightweightJavadocs(lightweightJavadocs);
+						if (typeNamePool != null) extractor.setTypeNamePool(typeNamePool);
+						if (annotationPool != null) extractor.setAnnotationPool(annotationPool);
+						ast.accept(extractor);
+						// with a cache set, each compilation unit has its own extractor (see parseUnits), so the holder has only its types
+						if (extractionCache != null) extractionCache.store(source, allCode, ast, extractor.getRawDataHolder());
+						unitVisited();
+					}
+				}, monitor);
+			}
+			catch (OperationCanceledException e)
+			{
+				LogUtil.logger().fine("Parsing of project '" + entry.getKey().getElementName() + "' was canceled.");
+			}
+		}
+	}
+
+	private String getSource(ICompilationUnit comp)
+	{
+		try
+		{
+			return comp.getSource();
+		}
+		catch (JavaModelException e)
+		{
+			LogUtil.logger().log(Level.WARNING, "Cannot read the source of '" + comp.getElementName() + "'.", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Counts a parsed compilation unit. On a worker thread only the count is updated, the progress listener of
+	 * the request is called only from the thread that started the parsing, so it does not have to be thread-safe.
+	 */
+	private void unitVisited()
+	{
+		synchronized (this)
+		{
+			visited += 1;
+		}
+		if (Thread.currentThread() == callingThread) reportProgress();
+	}
+
+	/**
+	 * Report progress. Make sure we don't output the same percentage more than once.
+	 */
+	private void reportProgress()
+	{
+		int newPercent;
+		synchronized (this)
+		{
+			if (total <= 0) return;
+			newPercent = startPercent + (endPercent - startPercent - reserve) * visited / total;
+			if (newPercent <= lastPercent) return;
+			lastPercent = newPercent;
+		}
+		req.progressUpdate(newPercent);
+	}
+}
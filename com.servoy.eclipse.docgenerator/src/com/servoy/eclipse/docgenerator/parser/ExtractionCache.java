@@ -0,0 +1,284 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.service.LogUtil;
+
+/**
+ * Keeps on disk the types extracted from each compilation unit, so that a compilation unit which did not change
+ * since the previous run does not have to be parsed again.
+ *
+ * Together with the types, the content hash of the compilation unit is stored, and also the content hashes of
+ * the compilation units that declare the types it refers to: supertypes and their supertypes, types of members,
+ * annotations and the constants used in their values, types referenced from Javadocs (@sameas, @clonedesc, etc.).
+ * The stored types are used only if none of these changed. Types that come from jars are not tracked.
+ *
+ * There is one file for each compilation unit. The cache can be used from several parser threads at the same time.
+ *
+ * The types read back from the cache do not go through the TypeNamePool and the AnnotationPool of the build:
+ * their type names and annotations are shared only within the compilation unit they were stored with.
+ */
+public class ExtractionCache
+{
+	private static final int FORMAT_VERSION = 3;
+
+	private final File cacheFolder;
+	private final String configuration;
+
+	// content hashes of the compilation units, computed at most once for each cache
+	private final Map<String, String> hashes = new HashMap<String, String>();
+
+	/**
+	 * The configuration must be different whenever the same source would be extracted differently (other extraction
+	 * settings, other version of the extractor). Entries stored with another configuration are not used.
+	 */
+	public ExtractionCache(File cacheFolder, String configuration)
+	{
+		this.cacheFolder = cacheFolder;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Returns the types extracted from the given compilation unit in an earlier run, or null if there are none or if
+	 * the compilation unit or one of the compilation units it depends on changed since then.
+	 */
+	public MetaModelHolder load(ICompilationUnit unit)
+	{
+		File file = getFile(unit);
+		if (!file.exists()) return null;
+
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file))))
+		{
+			if (in.readInt() != FORMAT_VERSION || !configuration.equals(in.readUTF())) return null;
+			if (!in.readUTF().equals(getHash(unit))) return null;
+			int dependencies = in.readInt();
+			for (int i = 0; i < dependencies; i++)
+			{
+				String path = in.readUTF();
+				if (!in.readUTF().equals(getHash(path))) return null;
+			}
+			return MetaModelHolder.readTypes(in);
+		}
+		catch (IOException | ClassNotFoundException | ClassCastException e)
+		{
+			LogUtil.logger().log(Level.FINE, "Cannot read the cached types of '" + unit.getElementName() + "', it will be parsed again.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the types just extracted from the given compilation unit, before any documentation generator added its data to them.
+	 * The holder must contain only the types of this compilation unit.
+	 */
+	public void store(ICompilationUnit unit, String source, CompilationUnit ast, MetaModelHolder types)
+	{
+		if (source == null) return;
+
+		String unitHash = hash(source);
+		synchronized (hashes)
+		{
+			hashes.put(unit.getPath().toPortableString(), unitHash);
+		}
+
+		Map<String, String> dependencies = new TreeMap<String, String>();
+		collectDependencies(unit, ast, dependencies);
+
+		File file = getFile(unit);
+		file.getParentFile().mkdirs();
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file))))
+		{
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(configuration);
+			out.writeUTF(unitHash);
+			out.writeInt(dependencies.size());
+			for (Map.Entry<String, String> entry : dependencies.entrySet())
+			{
+				out.writeUTF(entry.getKey());
+				out.writeUTF(entry.getValue());
+			}
+			types.writeTypes(out);
+		}
+		catch (IOException e)
+		{
+			LogUtil.logger().log(Level.WARNING, "Cannot cache the types of '" + unit.getElementName() + "'.", e);
+			file.delete();
+		}
+	}
+
+	/**
+	 * Collects the compilation units that declare the types referred to from the given AST, by name or as supertypes.
+	 */
+	private void collectDependencies(final ICompilationUnit unit, CompilationUnit ast, final Map<String, String> dependencies)
+	{
+		final Set<String> visited = new HashSet<String>();
+		ast.accept(new ASTVisitor(true)
+		{
+			@Override
+			public boolean visit(SimpleName node)
+			{
+				IBinding binding = node.resolveBinding();
+				if (binding instanceof ITypeBinding typeBinding) addDependency(typeBinding, unit, dependencies, visited);
+				else if (binding instanceof IVariableBinding varBinding && varBinding.isField())
+				{
+					addDependency(varBinding.getDeclaringClass(), unit, dependencies, visited);
+				}
+				else if (binding instanceof IMethodBinding methodBinding) addDependency(methodBinding.getDeclaringClass(), unit, dependencies, visited);
+				return true;
+			}
+		});
+
+		// the inherited members and Javadocs come from the whole hierarchy, not only from the types named in the source
+		for (Object type : ast.types())
+		{
+			if (type instanceof AbstractTypeDeclaration typeDeclaration) addSupertypes(typeDeclaration.resolveBinding(), unit, dependencies, visited);
+		}
+	}
+
+	private void addSupertypes(ITypeBinding binding, ICompilationUnit unit, Map<String, String> dependencies, Set<String> visited)
+	{
+		if (binding == null) return;
+		ITypeBinding declaration = binding.getTypeDeclaration();
+		addDependency(declaration, unit, dependencies, visited);
+
+		addSupertypes(declaration.getSuperclass(), unit, dependencies, visited);
+		for (ITypeBinding intf : declaration.getInterfaces())
+		{
+			addSupertypes(intf, unit, dependencies, visited);
+		}
+		for (ITypeBinding member : declaration.getDeclaredTypes())
+		{
+			addSupertypes(member, unit, dependencies, visited);
+		}
+	}
+
+	private void addDependency(ITypeBinding binding, ICompilationUnit unit, Map<String, String> dependencies, Set<String> visited)
+	{
+		if (binding == null) return;
+		ITypeBinding type = binding.isArray() ? binding.getElementType() : binding;
+		if (type.isPrimitive() || type.isTypeVariable() || type.isWildcardType() || type.isCapture()) return;
+		type = type.getTypeDeclaration();
+		if (!visited.add(type.getKey())) return;
+
+		IJavaElement element = type.getJavaElement();
+		if (element instanceof IType javaType && javaType.getCompilationUnit() != null && !javaType.getCompilationUnit().equals(unit))
+		{
+			ICompilationUnit dependency = javaType.getCompilationUnit();
+			String path = dependency.getPath().toPortableString();
+			if (!dependencies.containsKey(path))
+			{
+				// a dependency that cannot be read is stored with an empty hash, so the entry is never used
+				dependencies.put(path, Objects.toString(getHash(dependency), ""));
+			}
+		}
+	}
+
+	private String getHash(String path)
+	{
+		IJavaElement element = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getFile(Path.fromPortableString(path)));
+		return element instanceof ICompilationUnit unit ? getHash(unit) : null;
+	}
+
+	/**
+	 * Returns the hash of the current content of the given compilation unit, or null if it cannot be read.
+	 */
+	private String getHash(ICompilationUnit unit)
+	{
+		String path = unit.getPath().toPortableString();
+		synchronized (hashes)
+		{
+			if (hashes.containsKey(path)) return hashes.get(path);
+		}
+
+		String hash = null;
+		try
+		{
+			String source = unit.exists() ? unit.getSource() : null;
+			if (source != null) hash = hash(source);
+		}
+		catch (JavaModelException e)
+		{
+			LogUtil.logger().log(Level.WARNING, "Cannot read the source of '" + unit.getElementName() + "'.", e);
+		}
+		synchronized (hashes)
+		{
+			hashes.put(path, hash);
+		}
+		return hash;
+	}
+
+	private File getFile(ICompilationUnit unit)
+	{
+		return new File(cacheFolder, hash(unit.getPath().toPortableString()));
+	}
+
+	private static String hash(String content)
+	{
+		try
+		{
+			MessageDigest md = MessageDigest.getInstance("SHA-1");
+			byte[] digest = md.digest(content.getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (byte b : digest)
+			{
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// SHA-1 is always available, fall back to the plain hash code anyway.
+			return Integer.toHexString(content.hashCode());
+		}
+	}
+}
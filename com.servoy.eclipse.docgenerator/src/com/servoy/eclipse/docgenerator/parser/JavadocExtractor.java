@@ -17,15 +17,21 @@
 
 package com.servoy.eclipse.docgenerator.parser;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Stack;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.logging.Level;
 
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
@@ -55,11 +61,13 @@ import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
 import com.servoy.eclipse.docgenerator.metamodel.AnnotationMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.AnnotationPool;
 import com.servoy.eclipse.docgenerator.metamodel.AnnotationsList;
 import com.servoy.eclipse.docgenerator.metamodel.DocumentationWarning;
 import com.servoy.eclipse.docgenerator.metamodel.DocumentationWarning.WarningType;
 import com.servoy.eclipse.docgenerator.metamodel.FieldMetaModel;
 import com.servoy.eclipse.docgenerator.metamodel.IJavadocPartsHolder;
+import com.servoy.eclipse.docgenerator.metamodel.IPublicStore;
 import com.servoy.eclipse.docgenerator.metamodel.JavadocMetaModel;
 import com.servoy.eclipse.docgenerator.metamodel.JavadocTagPart;
 import com.servoy.eclipse.docgenerator.metamodel.JavadocTextPart;
@@ -69,6 +77,7 @@ import com.servoy.eclipse.docgenerator.metamodel.MethodMetaModel;
 import com.servoy.eclipse.docgenerator.metamodel.ReferenceMetaModel;
 import com.servoy.eclipse.docgenerator.metamodel.ReferenceMetaModel.QualifiedNameDisplayState;
 import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.TypeNamePool;
 import com.servoy.eclipse.docgenerator.service.LogUtil;
 
 
@@ -85,18 +94,28 @@ public class JavadocExtractor extends ASTVisitor
 
 	// types (classes/interfaces), methods and fields
 	private String packageName;
-	private final Stack<TypeMetaModel> typesStack = new Stack<TypeMetaModel>();
+	private final Deque<TypeMetaModel> typesStack = new ArrayDeque<TypeMetaModel>();
 	private final List<MemberMetaModel> currentMembers = new ArrayList<MemberMetaModel>();
 
 	// javadocs and annotations
 	private JavadocMetaModel currentJavadoc;
-	private final Stack<IJavadocPartsHolder> javadocsStack = new Stack<IJavadocPartsHolder>();
-	private final Stack<AnnotationsList> annotationsStack = new Stack<AnnotationsList>();
+	private final Deque<IJavadocPartsHolder> javadocsStack = new ArrayDeque<IJavadocPartsHolder>();
+	private final Deque<AnnotationsList> annotationsStack = new ArrayDeque<AnnotationsList>();
 
 	// for manual tracking of whitespace (JDT does not store whitespace in the AST)
 	private int lastNodeEnd = -1;
 	private SourceCodeTracker tracker;
 
+	// type names shared by all types and members built during the build
+	private TypeNamePool typeNames = new TypeNamePool();
+
+	// annotations shared by all types and members built during the build
+	private AnnotationPool annotations = new AnnotationPool();
+
+	// when set, the doc comments are not parsed by JDT, the ones that may be documented are tokenized from the source
+	private boolean lightweightJavadocs;
+	private final Deque<Boolean> candidatesStack = new ArrayDeque<Boolean>();
+
 	public MetaModelHolder getRawDataHolder()
 	{
 		return allTypes;
@@ -107,6 +126,32 @@ public class JavadocExtractor extends ASTVisitor
 		this.tracker = tracker;
 	}
 
+	/**
+	 * Sets the pool of type names shared during the build, by default each extractor has its own.
+	 */
+	public void setTypeNamePool(TypeNamePool typeNames)
+	{
+		this.typeNames = typeNames;
+	}
+
+	/**
+	 * Sets the pool of annotations shared during the build, by default each extractor has its own.
+	 */
+	public void setAnnotationPool(AnnotationPool annotations)
+	{
+		this.annotations = annotations;
+	}
+
+	/**
+	 * Must be set when the ASTs are parsed without doc comment support (see {@link JavaCore#COMPILER_DOC_COMMENT_SUPPORT}).
+	 * Then the Javadocs are read with the {@link JavadocTokenizer}: the Javadocs of all members, because a documented type may inherit
+	 * them or refer to them (@sameas, @clonedesc, @sampleas), but the Javadocs of types only for the candidates for documentation.
+	 */
+	public void setLightweightJavadocs(boolean lightweightJavadocs)
+	{
+		this.lightweightJavadocs = lightweightJavadocs;
+	}
+
 	@Override
 	public boolean visit(PackageDeclaration node)
 	{
@@ -154,11 +199,11 @@ public class JavadocExtractor extends ASTVisitor
 			return false;
 		}
 
-		FieldMetaModel fieldMM = new FieldMetaModel(typesStack.peek().getName().getQualifiedName(), node, node.getName().getFullyQualifiedName());
+		FieldMetaModel fieldMM = new FieldMetaModel(typesStack.peek().getName().getQualifiedName(), node, node.getName().getFullyQualifiedName(), typeNames);
 		typesStack.peek().addMember(fieldMM.getIndexSignature(), fieldMM);
 		currentMembers.add(fieldMM);
 
-		annotationsStack.push(new AnnotationsList());
+		annotationsStack.push(AnnotationsList.EMPTY);
 		return true;
 	}
 
@@ -178,22 +223,56 @@ public class JavadocExtractor extends ASTVisitor
 
 	private void startNewType(AbstractTypeDeclaration node)
 	{
-		List<String> ancestorNames = new ArrayList<String>();
-		for (TypeMetaModel ancestorType : typesStack)
+		List<String> ancestorNames = new ArrayList<String>(typesStack.size());
+		// outermost type first
+		for (Iterator<TypeMetaModel> it = typesStack.descendingIterator(); it.hasNext();)
 		{
-			ancestorNames.add(ancestorType.getName().getShortName());
+			ancestorNames.add(it.next().getName().getShortName());
 		}
 		TypeMetaModel typeData = node instanceof TypeDeclaration typeDeclaration
-			? new TypeMetaModel(packageName, ancestorNames, typeDeclaration, typeDeclaration.isInterface())
-			: new TypeMetaModel(packageName, ancestorNames, (EnumDeclaration)node);
+			? new TypeMetaModel(packageName, ancestorNames, typeDeclaration, typeDeclaration.isInterface(), typeNames)
+			: new TypeMetaModel(packageName, ancestorNames, (EnumDeclaration)node, typeNames);
 		typesStack.push(typeData);
-		annotationsStack.push(new AnnotationsList());
+		annotationsStack.push(AnnotationsList.EMPTY);
+		candidatesStack.push(Boolean.valueOf(lightweightJavadocs && isCandidateType(node)));
+	}
+
+	/**
+	 * A type is a candidate for documentation if it is annotated with @ServoyDocumented, or if it declares
+	 * scripting members ("js" prefixed methods or members with JS annotations).
+	 */
+	private static boolean isCandidateType(AbstractTypeDeclaration node)
+	{
+		if (hasAnnotation(node, IPublicStore.ANNOTATION_SERVOY_DOCUMENTED)) return true;
+		for (Object o : node.bodyDeclarations())
+		{
+			if (o instanceof MethodDeclaration method && method.getName().getIdentifier().startsWith("js")) return true;
+			if (o instanceof BodyDeclaration member && hasAnnotation(member, "JS")) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks without bindings if the declaration has an annotation whose simple name starts with the given prefix.
+	 */
+	private static boolean hasAnnotation(BodyDeclaration node, String prefix)
+	{
+		for (Object modifier : node.modifiers())
+		{
+			if (modifier instanceof Annotation annotation)
+			{
+				String name = annotation.getTypeName().getFullyQualifiedName();
+				if (name.startsWith(prefix, name.lastIndexOf('.') + 1)) return true;
+			}
+		}
+		return false;
 	}
 
 	private void addCurrentType()
 	{
 		TypeMetaModel typeMM = typesStack.pop();
 		AnnotationsList annotations = annotationsStack.pop();
+		candidatesStack.pop();
 		typeMM.setAnnotations(annotations);
 		allTypes.addType(typeMM.getName().getQualifiedName(), typeMM);
 
@@ -207,10 +286,10 @@ public class JavadocExtractor extends ASTVisitor
 			return false;
 		}
 
-		MethodMetaModel methodMM = new MethodMetaModel(typesStack.peek().getName().getQualifiedName(), node);
+		MethodMetaModel methodMM = new MethodMetaModel(typesStack.peek().getName().getQualifiedName(), node, typeNames);
 		typesStack.peek().addMember(methodMM.getIndexSignature(), methodMM);
 		currentMembers.add(methodMM);
-		annotationsStack.push(new AnnotationsList());
+		annotationsStack.push(AnnotationsList.EMPTY);
 		return true;
 	}
 
@@ -241,12 +320,12 @@ public class JavadocExtractor extends ASTVisitor
 			if (o instanceof VariableDeclarationFragment)
 			{
 				VariableDeclarationFragment varDecl = (VariableDeclarationFragment)o;
-				FieldMetaModel fieldMM = new FieldMetaModel(typesStack.peek().getName().getQualifiedName(), node, varDecl.getName().getFullyQualifiedName());
+				FieldMetaModel fieldMM = new FieldMetaModel(typesStack.peek().getName().getQualifiedName(), node, varDecl.getName().getFullyQualifiedName(), typeNames);
 				typesStack.peek().addMember(fieldMM.getIndexSignature(), fieldMM);
 				currentMembers.add(fieldMM);
 			}
 		}
-		annotationsStack.push(new AnnotationsList());
+		annotationsStack.push(AnnotationsList.EMPTY);
 		return true;
 	}
 
@@ -293,7 +372,7 @@ public class JavadocExtractor extends ASTVisitor
 			IAnnotationBinding bind = node.resolveAnnotationBinding();
 			if (bind != null)
 			{
-				annotationMM = (AnnotationMetaModel)extractAnnotationValue(bind);
+				annotationMM = annotations.get(bind, this::buildAnnotation);
 			}
 			else
 			{
@@ -315,7 +394,8 @@ public class JavadocExtractor extends ASTVisitor
 							else
 							{
 								warning(WarningType.Other, "Cannot retrieve value for attribute '" + key + "' of annotation: " + node.toString());
-								annotationMM.addAttribute(key, mvPair.getValue());
+								// keep only the source text, not the AST node
+								annotationMM.addAttribute(key, mvPair.getValue().toString());
 							}
 						}
 					}
@@ -331,11 +411,19 @@ public class JavadocExtractor extends ASTVisitor
 					else
 					{
 						warning(WarningType.Other, "Cannot retrieve value from single member annotation: " + node.toString());
-						annotationMM.addAttribute("value", sma.getValue());
+						annotationMM.addAttribute("value", sma.getValue().toString());
 					}
 				}
 			}
-			annotationsStack.peek().add(annotationMM.getName(), annotationMM);
+			AnnotationsList annotationsList = annotationsStack.peek();
+			if (annotationsList == AnnotationsList.EMPTY)
+			{
+				// the list is only created for the declarations that do have annotations
+				annotationsList = new AnnotationsList();
+				annotationsStack.pop();
+				annotationsStack.push(annotationsList);
+			}
+			annotationsList.add(annotationMM.getName(), annotationMM);
 		}
 	}
 
@@ -355,22 +443,12 @@ public class JavadocExtractor extends ASTVisitor
 		}
 		else if (value instanceof IAnnotationBinding)
 		{
-			IAnnotationBinding annBinding = (IAnnotationBinding)value;
-			AnnotationMetaModel annot = new AnnotationMetaModel(annBinding.getName());
-			for (IMemberValuePairBinding attr : annBinding.getAllMemberValuePairs())
-			{
-				try
-				{
-					String key = attr.getName();
-					Object val = extractAnnotationValue(attr.getValue());
-					annot.addAttribute(key, val);
-				}
-				catch (Exception e)
-				{
-					System.err.println("Attribute " + attr.getName() + " value is null (annotation binding " + annBinding.getName() + ")");
-				}
-			}
-			return annot;
+			return annotations.get((IAnnotationBinding)value, this::buildAnnotation);
+		}
+		else if (value instanceof ITypeBinding)
+		{
+			// class literals are kept as type names, not as type bindings, so that no AST is kept alive
+			return typeNames.get((ITypeBinding)value, false);
 		}
 		else if (value.getClass().isArray())
 		{
@@ -388,9 +466,41 @@ public class JavadocExtractor extends ASTVisitor
 		}
 	}
 
+	private AnnotationMetaModel buildAnnotation(IAnnotationBinding annBinding)
+	{
+		Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+		for (IMemberValuePairBinding attr : annBinding.getAllMemberValuePairs())
+		{
+			try
+			{
+				String key = attr.getName();
+				Object val = extractAnnotationValue(attr.getValue());
+				attributes.put(key, val);
+			}
+			catch (Exception e)
+			{
+				LogUtil.logger().log(Level.WARNING, "Attribute " + attr.getName() + " value is null (annotation binding " + annBinding.getName() + ")", e);
+			}
+		}
+		return new AnnotationMetaModel(annBinding.getName(), attributes);
+	}
+
 	@Override
 	public boolean visit(Javadoc node)
 	{
+		if (lightweightJavadocs)
+		{
+			// there is no doc comment DOM to visit, tokenize the source of the comment if needed
+			if (isInterestingJavadoc(node) && tracker != null && (!isTypeJavadoc(node) || (!candidatesStack.isEmpty() && candidatesStack.peek().booleanValue())))
+			{
+				String comment = tracker.getTextBetween(node.getStartPosition(), node.getStartPosition() + node.getLength() - 1);
+				if (comment != null)
+				{
+					setJavadoc(node, JavadocTokenizer.tokenize(comment));
+				}
+			}
+			return false;
+		}
 		if (isInterestingJavadoc(node))
 		{
 			currentJavadoc = new JavadocMetaModel();
@@ -403,27 +513,38 @@ public class JavadocExtractor extends ASTVisitor
 	@Override
 	public void endVisit(Javadoc node)
 	{
-		if (isInterestingJavadoc(node))
+		if (!lightweightJavadocs && isInterestingJavadoc(node))
 		{
 			javadocsStack.pop();
-			currentJavadoc.compress();
-			int parentType = node.getParent().getNodeType();
-			if (parentType == ASTNode.TYPE_DECLARATION || parentType == ASTNode.ENUM_DECLARATION)
-			{
-				typesStack.peek().setJavadoc(currentJavadoc);
-			}
-			else if (parentType == ASTNode.METHOD_DECLARATION || parentType == ASTNode.FIELD_DECLARATION || parentType == ASTNode.ENUM_CONSTANT_DECLARATION)
-			{
-				for (MemberMetaModel memberMM : currentMembers)
-				{
-					memberMM.setJavadoc(currentJavadoc);
-				}
-			}
+			setJavadoc(node, currentJavadoc);
 			currentJavadoc = null;
 			lastNodeEnd = -1;
 		}
 	}
 
+	private void setJavadoc(Javadoc node, JavadocMetaModel javadoc)
+	{
+		javadoc.compress();
+		int parentType = node.getParent().getNodeType();
+		if (parentType == ASTNode.TYPE_DECLARATION || parentType == ASTNode.ENUM_DECLARATION)
+		{
+			typesStack.peek().setJavadoc(javadoc);
+		}
+		else if (parentType == ASTNode.METHOD_DECLARATION || parentType == ASTNode.FIELD_DECLARATION || parentType == ASTNode.ENUM_CONSTANT_DECLARATION)
+		{
+			for (MemberMetaModel memberMM : currentMembers)
+			{
+				memberMM.setJavadoc(javadoc);
+			}
+		}
+	}
+
+	private static boolean isTypeJavadoc(Javadoc node)
+	{
+		int parentType = node.getParent().getNodeType();
+		return parentType == ASTNode.TYPE_DECLARATION || parentType == ASTNode.ENUM_DECLARATION;
+	}
+
 	private boolean isInterestingJavadoc(Javadoc node)
 	{
 		if (node.getParent() != null)
@@ -658,17 +779,12 @@ public class JavadocExtractor extends ASTVisitor
 			int thisNodeStart = node.getStartPosition();
 			if (tracker != null)
 			{
-				String prefix = tracker.getTextBetween(lastNodeEnd + 1, thisNodeStart - 1);
-				if (prefix != null)
+				CharSequence whitespace = tracker.getCharsBetween(lastNodeEnd + 1, thisNodeStart - 1);
+				if (whitespace != null)
 				{
 					if (!javadocsStack.isEmpty())
 					{
-						// remove "   * " from beginning of comment lines, including the first space if it's there
-						prefix = Pattern.compile("^[ \\t]*\\*[ ]?", Pattern.MULTILINE).matcher(prefix).replaceAll("");
-						// transform line endings to Linux style
-						prefix = Pattern.compile("\\r\\n").matcher(prefix).replaceAll("\n");
-						prefix = Pattern.compile("\\r").matcher(prefix).replaceAll("\n");
-						JavadocTextPart prefixPart = new JavadocTextPart(prefix);
+						JavadocTextPart prefixPart = new JavadocTextPart(normalizeWhitespace(whitespace));
 						javadocsStack.peek().addPart(prefixPart);
 					}
 					else
@@ -687,39 +803,76 @@ public class JavadocExtractor extends ASTVisitor
 		lastNodeEnd = node.getStartPosition() + lenToUse - 1;
 	}
 
-	private void warning(WarningType type, String s)
+	/**
+	 * Removes "   * " from the beginning of comment lines, including the first space if it's there,
+	 * and transforms line endings to Linux style. All in one pass over the text.
+	 */
+	static String normalizeWhitespace(CharSequence text)
 	{
-		if (typesStack.size() > 0)
+		int len = text.length();
+		StringBuilder sb = new StringBuilder(len);
+		boolean lineStart = true;
+		boolean afterCR = false;
+		int i = 0;
+		while (i < len)
 		{
-			DocumentationWarning dw = new DocumentationWarning(type, location(), s);
-			if (currentMembers.size() > 0)
+			if (lineStart)
 			{
-				for (MemberMetaModel mdr : currentMembers)
+				lineStart = false;
+				int j = i;
+				while (j < len && (text.charAt(j) == ' ' || text.charAt(j) == '\t'))
 				{
-					mdr.getWarnings().add(dw);
+					j++;
+				}
+				if (j < len && text.charAt(j) == '*')
+				{
+					j++;
+					if (j < len && text.charAt(j) == ' ') j++;
+					i = j;
+					continue;
 				}
 			}
+			char c = text.charAt(i);
+			if (c == '\r')
+			{
+				sb.append('\n');
+				afterCR = true;
+				lineStart = i + 1 >= len || text.charAt(i + 1) != '\n';
+			}
 			else
 			{
-				typesStack.peek().getWarnings().add(dw);
+				// a '\n' right after a '\r' (even if only after stripping a '*') ends the same line
+				if (c != '\n' || !afterCR) sb.append(c);
+				afterCR = false;
+				lineStart = c == '\n' || c == '\u0085' || c == '\u2028' || c == '\u2029';
 			}
+			i++;
 		}
+		return sb.toString();
 	}
 
-	private String location()
+	private void warning(WarningType type, String s)
 	{
-		StringBuffer sb = new StringBuffer();
 		if (typesStack.size() > 0)
 		{
+			DocumentationWarning dw = new DocumentationWarning(type, location(), s);
 			if (currentMembers.size() > 0)
 			{
-				sb.append(currentMembers.get(0).getFullSignature());
+				for (MemberMetaModel mdr : currentMembers)
+				{
+					mdr.getWarnings().add(dw);
+				}
 			}
 			else
 			{
-				sb.append(typesStack.peek().getName().getQualifiedName());
+				typesStack.peek().getWarnings().add(dw);
 			}
 		}
-		return sb.toString();
+	}
+
+	private String location()
+	{
+		if (typesStack.isEmpty()) return "";
+		return currentMembers.isEmpty() ? typesStack.peek().getName().getQualifiedName() : currentMembers.get(0).getFullSignature();
 	}
 }
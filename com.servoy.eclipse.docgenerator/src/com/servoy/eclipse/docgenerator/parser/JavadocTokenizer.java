@@ -0,0 +1,314 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.servoy.eclipse.docgenerator.metamodel.IJavadocPartsHolder;
+import com.servoy.eclipse.docgenerator.metamodel.JavadocMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.JavadocTagPart;
+import com.servoy.eclipse.docgenerator.metamodel.JavadocTextPart;
+import com.servoy.eclipse.docgenerator.metamodel.ReferenceMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.ReferenceMetaModel.QualifiedNameDisplayState;
+
+/**
+ * Builds the Javadoc meta model straight from the source of a doc comment, without the JDT doc comment DOM.
+ * The result has the same structure as the one built by {@link JavadocExtractor} from the DOM: a text tag
+ * for the description, one tag for each block tag, nested tags for the inline tags and references
+ * for the members referred from @see, @link, @linkplain and @value. The references are not resolved,
+ * they are kept as they were written.
+ */
+public class JavadocTokenizer
+{
+	private static final String[] REFERENCE_TAGS = { "@see", "@link", "@linkplain", "@value" };
+
+	// the comment without the "/**", "*/" and the leading "   * " of the lines, with the line endings normalized
+	private final StringBuilder text = new StringBuilder();
+	// start and end of the content of each line in the text above
+	private final List<int[]> lines = new ArrayList<int[]>();
+
+	private JavadocTokenizer()
+	{
+	}
+
+	/**
+	 * Tokenizes the given doc comment, which must include the starting "/**" and the ending "*&#47;".
+	 */
+	public static JavadocMetaModel tokenize(String comment)
+	{
+		JavadocTokenizer tokenizer = new JavadocTokenizer();
+		tokenizer.readLines(comment);
+		return tokenizer.buildJavadoc();
+	}
+
+	/**
+	 * Like JDT, the content of a line starts after the leading whitespace and stars and goes up to the line ending.
+	 * Between the lines we keep what JavadocExtractor keeps between two DOM nodes.
+	 */
+	private void readLines(String comment)
+	{
+		int end = comment.endsWith("*/") ? comment.length() - 2 : comment.length();
+		int pos = comment.startsWith("/**") ? 3 : 0;
+		int previousEnd = -1;
+		while (pos < end)
+		{
+			int start = pos;
+			while (start < end && isLeading(comment.charAt(start)))
+			{
+				start++;
+			}
+			int lineEnd = start;
+			while (lineEnd < end && comment.charAt(lineEnd) != '\r' && comment.charAt(lineEnd) != '\n')
+			{
+				lineEnd++;
+			}
+			if (lineEnd > start)
+			{
+				if (previousEnd >= 0) text.append(JavadocExtractor.normalizeWhitespace(comment.subSequence(previousEnd, start)));
+				lines.add(new int[] { text.length(), text.length() + lineEnd - start });
+				text.append(comment, start, lineEnd);
+				previousEnd = lineEnd;
+			}
+			pos = lineEnd;
+			if (pos < end && comment.charAt(pos) == '\r') pos++;
+			if (pos < end && comment.charAt(pos) == '\n') pos++;
+		}
+	}
+
+	private JavadocMetaModel buildJavadoc()
+	{
+		JavadocMetaModel javadoc = new JavadocMetaModel();
+		String tagName = null;
+		int contentStart = 0;
+		int contentEnd = 0;
+		for (int[] line : lines)
+		{
+			int tagNameEnd = text.charAt(line[0]) == '@' ? readTagName(line[0], line[1]) : line[0];
+			if (tagNameEnd > line[0] + 1)
+			{
+				// a block tag, the whitespace since the end of the previous tag stays in the Javadoc itself
+				if (tagName != null)
+				{
+					addTag(javadoc, tagName, contentStart, contentEnd);
+					addText(javadoc, contentEnd, line[0]);
+				}
+				tagName = text.substring(line[0], tagNameEnd);
+				contentStart = tagNameEnd;
+			}
+			else if (tagName == null)
+			{
+				tagName = JavadocMetaModel.TEXT_TAG;
+				contentStart = line[0];
+			}
+			contentEnd = line[1];
+		}
+		if (tagName != null)
+		{
+			addTag(javadoc, tagName, contentStart, contentEnd);
+		}
+		return javadoc;
+	}
+
+	private void addTag(IJavadocPartsHolder holder, String tagName, int start, int end)
+	{
+		JavadocTagPart tag = new JavadocTagPart(tagName);
+		holder.addPart(tag);
+		int pos = isReferenceTag(tagName) ? addReference(tag, start, end) : start;
+		while (pos < end)
+		{
+			int open = findInlineTag(pos, end);
+			if (open < 0)
+			{
+				addText(tag, pos, end);
+				break;
+			}
+			addText(tag, pos, open);
+			int tagNameEnd = readTagName(open + 1, end);
+			int close = findClosingBrace(tagNameEnd, end);
+			JavadocTagPart inlineTag = new JavadocTagPart(text.substring(open + 1, tagNameEnd));
+			tag.addPart(inlineTag);
+			int inlinePos = isReferenceTag(inlineTag.getName()) ? addReference(inlineTag, tagNameEnd, close) : tagNameEnd;
+			addText(inlineTag, inlinePos, close);
+			pos = close < end ? close + 1 : end;
+		}
+	}
+
+	/**
+	 * Reads the reference at the beginning of the given range. Member references (with '#') are kept as references,
+	 * anything else as text. Returns the position where the reference ends.
+	 */
+	private int addReference(IJavadocPartsHolder holder, int start, int end)
+	{
+		int refStart = start;
+		while (refStart < end && Character.isWhitespace(text.charAt(refStart)))
+		{
+			refStart++;
+		}
+		addText(holder, start, refStart);
+
+		int refEnd = refStart;
+		int depth = 0;
+		while (refEnd < end)
+		{
+			char c = text.charAt(refEnd);
+			if (depth == 0 && (Character.isWhitespace(c) || c == '}')) break;
+			if (c == '(') depth++;
+			else if (c == ')' && depth > 0) depth--;
+			refEnd++;
+			if (c == ')' && depth == 0) break;
+		}
+		String ref = text.substring(refStart, refEnd);
+		if (ref.indexOf('#') >= 0)
+		{
+			holder.addPart(toReference(ref));
+		}
+		else
+		{
+			addText(holder, refStart, refEnd);
+		}
+		return refEnd;
+	}
+
+	private static ReferenceMetaModel toReference(String ref)
+	{
+		int hash = ref.indexOf('#');
+		String qualifier = ref.substring(0, hash);
+		String memberName = ref.substring(hash + 1);
+		String[] argumentsTypesNames = null;
+		int paren = memberName.indexOf('(');
+		if (paren >= 0)
+		{
+			int closeParen = memberName.lastIndexOf(')');
+			String arguments = memberName.substring(paren + 1, closeParen > paren ? closeParen : memberName.length()).trim();
+			memberName = memberName.substring(0, paren);
+			argumentsTypesNames = arguments.length() > 0 ? arguments.split(",") : new String[0];
+			for (int i = 0; i < argumentsTypesNames.length; i++)
+			{
+				argumentsTypesNames[i] = getSimpleTypeName(argumentsTypesNames[i].trim());
+			}
+		}
+
+		String typeQualifiedName = null;
+		String typeSimpleName = null;
+		QualifiedNameDisplayState qnameState = QualifiedNameDisplayState.None;
+		if (qualifier.length() > 0)
+		{
+			typeQualifiedName = qualifier;
+			int idx = qualifier.lastIndexOf('.');
+			if (idx >= 0)
+			{
+				qnameState = QualifiedNameDisplayState.Full;
+				typeSimpleName = qualifier.substring(idx + 1);
+			}
+			else
+			{
+				qnameState = QualifiedNameDisplayState.Simple;
+				typeSimpleName = qualifier;
+			}
+		}
+		return new ReferenceMetaModel(typeQualifiedName, typeSimpleName, memberName, argumentsTypesNames, qnameState);
+	}
+
+	/**
+	 * The simple name of a parameter type, as the binding of the parameter would give it ("java.lang.String... args" becomes "String[]").
+	 */
+	private static String getSimpleTypeName(String parameter)
+	{
+		String type = parameter;
+		for (int i = 0; i < type.length(); i++)
+		{
+			if (Character.isWhitespace(type.charAt(i)))
+			{
+				type = type.substring(0, i);
+				break;
+			}
+		}
+		if (type.endsWith("..."))
+		{
+			type = type.substring(0, type.length() - 3) + "[]";
+		}
+		int generic = type.indexOf('<');
+		int dot = type.lastIndexOf('.', generic >= 0 ? generic : type.length());
+		return dot >= 0 ? type.substring(dot + 1) : type;
+	}
+
+	/**
+	 * Returns the end of the tag name that starts with the '@' at the given position.
+	 */
+	private int readTagName(int at, int end)
+	{
+		int pos = at + 1;
+		while (pos < end && (Character.isJavaIdentifierPart(text.charAt(pos)) || text.charAt(pos) == '.' || text.charAt(pos) == '-'))
+		{
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Returns the position of the next "{@" that starts an inline tag, or -1 if there is none in the range.
+	 */
+	private int findInlineTag(int start, int end)
+	{
+		int open = text.indexOf("{@", start);
+		while (open >= 0 && open < end)
+		{
+			if (readTagName(open + 1, end) > open + 2) return open;
+			open = text.indexOf("{@", open + 2);
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the '}' that closes an inline tag, taking nested braces into account, or the end of the range.
+	 */
+	private int findClosingBrace(int start, int end)
+	{
+		int depth = 1;
+		for (int pos = start; pos < end; pos++)
+		{
+			char c = text.charAt(pos);
+			if (c == '{') depth++;
+			else if (c == '}' && --depth == 0) return pos;
+		}
+		return end;
+	}
+
+	private void addText(IJavadocPartsHolder holder, int start, int end)
+	{
+		if (end > start)
+		{
+			holder.addPart(new JavadocTextPart(text.substring(start, end)));
+		}
+	}
+
+	private static boolean isReferenceTag(String tagName)
+	{
+		for (String t : REFERENCE_TAGS)
+		{
+			if (t.equals(tagName)) return true;
+		}
+		return false;
+	}
+
+	private static boolean isLeading(char c)
+	{
+		return c == ' ' || c == '\t' || c == '\f' || c == '*';
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set of package names, organized as a trie on the segments of the names. Checking if a package
+ * is one of the listed packages, or a subpackage of one of them, costs one lookup per segment
+ * of the package name, no matter how many packages are listed.
+ */
+public class PackagePrefixTrie
+{
+	private final Map<String, PackagePrefixTrie> children = new HashMap<String, PackagePrefixTrie>();
+	private String prefix;
+
+	public PackagePrefixTrie(Collection<String> prefixes)
+	{
+		for (String p : prefixes)
+		{
+			add(p);
+		}
+	}
+
+	private PackagePrefixTrie()
+	{
+	}
+
+	private void add(String packageName)
+	{
+		PackagePrefixTrie node = this;
+		// empty segments are kept, so that a prefix like "com.servoy." only matches what starts with "com.servoy.." (nothing)
+		for (String segment : packageName.split("\\.", -1))
+		{
+			PackagePrefixTrie child = node.children.get(segment);
+			if (child == null)
+			{
+				child = new PackagePrefixTrie();
+				node.children.put(segment, child);
+			}
+			node = child;
+		}
+		if (node.prefix == null) node.prefix = packageName;
+	}
+
+	/**
+	 * Returns the shortest listed package that is equal to the given package or is a parent of it,
+	 * or null if there is no such listed package.
+	 */
+	public String getMatchingPrefix(String packageName)
+	{
+		PackagePrefixTrie node = this;
+		int start = 0;
+		while (start <= packageName.length())
+		{
+			int end = packageName.indexOf('.', start);
+			if (end < 0) end = packageName.length();
+			node = node.children.get(packageName.substring(start, end));
+			if (node == null) return null;
+			if (node.prefix != null) return node.prefix;
+			start = end + 1;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if the given package is listed, or is a subpackage of a listed package.
+	 */
+	public boolean matches(String packageName)
+	{
+		return getMatchingPrefix(packageName) != null;
+	}
+}
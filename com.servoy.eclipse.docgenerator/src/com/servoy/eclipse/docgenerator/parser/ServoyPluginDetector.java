@@ -17,9 +17,16 @@
 
 package com.servoy.eclipse.docgenerator.parser;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.TreeSet;
 
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.ImportDeclaration;
@@ -27,21 +34,87 @@ import org.eclipse.jdt.core.dom.Javadoc;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
 
 import com.servoy.eclipse.docgenerator.metamodel.DocumentationWarning;
+import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
 import com.servoy.eclipse.docgenerator.metamodel.TypeName;
 import com.servoy.eclipse.docgenerator.service.LogUtil;
 
 /**
  * Quick AST visitor to determine if inside a certain package there is any Servoy client plugin.
  * A Servoy client plugin is a class that directly implements the com.servoy.j2db.plugins.IClientPlugin interface.
+ * Servoy-aware beans and bean factories are detected in the same way.
+ *
+ * When the Java search index is available, {@link #findPluginPackages(IJavaProject, IProgressMonitor)} answers the same
+ * question for a whole project without parsing anything.
  *
  * @author gerzse
  */
 public class ServoyPluginDetector extends ASTVisitor
 {
+	private static final String CLIENT_PLUGIN = "com.servoy.j2db.plugins.IClientPlugin";
+	private static final String[] SERVOY_AWARE_BEANS = { "com.servoy.j2db.dataui.IServoyAwareBean", "com.servoy.j2db.dataui.IServoyAwareVisibilityBean" };
+	private static final String[] BEAN_FACTORIES = { "com.servoy.j2db.IServoyBeanFactory", "com.servoy.j2db.IServoyBeanFactory2" };
+
 	private boolean pluginFound;
 
+	/**
+	 * Queries the Java search index for the source types of the given project that directly implement one of the Servoy plugin,
+	 * bean or bean factory interfaces, and returns the names of the packages that hold them.
+	 */
+	public static Set<String> findPluginPackages(IJavaProject project, IProgressMonitor monitor) throws CoreException
+	{
+		SearchPattern pattern = createImplementorsPattern(CLIENT_PLUGIN);
+		for (String intf : SERVOY_AWARE_BEANS)
+		{
+			pattern = SearchPattern.createOrPattern(pattern, createImplementorsPattern(intf));
+		}
+		for (String intf : BEAN_FACTORIES)
+		{
+			pattern = SearchPattern.createOrPattern(pattern, createImplementorsPattern(intf));
+		}
+		IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] { project }, IJavaSearchScope.SOURCES);
+
+		final Set<String> packages = new HashSet<String>();
+		new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, new SearchRequestor()
+		{
+			@Override
+			public void acceptSearchMatch(SearchMatch match)
+			{
+				// Only named member or top level classes count, the same as in the AST based detection.
+				if (match.getAccuracy() == SearchMatch.A_ACCURATE && match.getElement() instanceof IType type)
+				{
+					try
+					{
+						if (!type.isAnonymous() && !type.isLocal() && !type.isEnum())
+						{
+							LogUtil.logger().fine("Found a class that is Servoy plugin, bean or bean factory: '" + type.getFullyQualifiedName() + "'.");
+							packages.add(type.getPackageFragment().getElementName());
+						}
+					}
+					catch (CoreException e)
+					{
+						LogUtil.logger().warning("Error while checking if class is Servoy plugin: " + type.getFullyQualifiedName() + ", message:" + e.getMessage());
+					}
+				}
+			}
+		}, monitor);
+		return packages;
+	}
+
+	private static SearchPattern createImplementorsPattern(String interfaceName)
+	{
+		return SearchPattern.createPattern(interfaceName, IJavaSearchConstants.TYPE, IJavaSearchConstants.IMPLEMENTORS,
+			SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+	}
+
 	public boolean containsPlugin()
 	{
 		return pluginFound;
@@ -91,25 +164,9 @@ public class ServoyPluginDetector extends ASTVisitor
 					try
 					{
 						TypeName tni = new TypeName(interf, false, clz.getName().getFullyQualifiedName(), "interface", new TreeSet<DocumentationWarning>());
-						if (tni.getQualifiedName() != null)
+						if (isPluginInterface(tni.getQualifiedName(), clz.getName().getFullyQualifiedName()))
 						{
-							if (tni.getQualifiedName().equals("com.servoy.j2db.plugins.IClientPlugin"))
-							{
-								LogUtil.logger().fine("Found a class that is Servoy plugin: '" + clz.getName().getFullyQualifiedName() + "'.");
-								return true;
-							}
-							else if (tni.getQualifiedName().equals("com.servoy.j2db.dataui.IServoyAwareBean") ||
-								tni.getQualifiedName().equals("com.servoy.j2db.dataui.IServoyAwareVisibilityBean"))
-							{
-								LogUtil.logger().fine("Found a class that is Servoy-aware bean: '" + clz.getName().getFullyQualifiedName() + "'.");
-								return true;
-							}
-							else if (tni.getQualifiedName().equals("com.servoy.j2db.IServoyBeanFactory") ||
-								tni.getQualifiedName().equals("com.servoy.j2db.IServoyBeanFactory2"))
-							{
-								LogUtil.logger().fine("Found a class that is Servoy bean factory: '" + clz.getName().getFullyQualifiedName() + "'.");
-								return true;
-							}
+							return true;
 						}
 					}
 					catch (Exception e)
@@ -123,4 +180,47 @@ public class ServoyPluginDetector extends ASTVisitor
 		}
 		return false;
 	}
+
+	/**
+	 * Checks if an already extracted type is a Servoy plugin, bean or bean factory. This allows detecting plugins
+	 * in the same pass that extracts the documentation. Enums are left out, the same as in the search based detection.
+	 */
+	public static boolean isServoyPlugin(TypeMetaModel typeMM)
+	{
+		if (typeMM.isEnum())
+		{
+			return false;
+		}
+		for (TypeName intf : typeMM.getInterfaces())
+		{
+			if (isPluginInterface(intf.getQualifiedName(), typeMM.getName().getQualifiedName()))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isPluginInterface(String interfaceName, String className)
+	{
+		if (interfaceName != null)
+		{
+			if (interfaceName.equals(CLIENT_PLUGIN))
+			{
+				LogUtil.logger().fine("Found a class that is Servoy plugin: '" + className + "'.");
+				return true;
+			}
+			else if (interfaceName.equals(SERVOY_AWARE_BEANS[0]) || interfaceName.equals(SERVOY_AWARE_BEANS[1]))
+			{
+				LogUtil.logger().fine("Found a class that is Servoy-aware bean: '" + className + "'.");
+				return true;
+			}
+			else if (interfaceName.equals(BEAN_FACTORIES[0]) || interfaceName.equals(BEAN_FACTORIES[1]))
+			{
+				LogUtil.logger().fine("Found a class that is Servoy bean factory: '" + className + "'.");
+				return true;
+			}
+		}
+		return false;
+	}
 }
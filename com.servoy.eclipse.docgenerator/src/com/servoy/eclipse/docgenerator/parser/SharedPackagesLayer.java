@@ -0,0 +1,66 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.service.LogUtil;
+
+/**
+ * Packages that are needed when documenting each of several plugins (for example the base.plugins
+ * packages of servoy_base in autopilot mode). They are parsed only once, the first time they are needed,
+ * and each plugin then gets its own copy of the parsed types, with the types of the plugin laid over them.
+ */
+public class SharedPackagesLayer
+{
+	private final CompilationUnitsParser unitsParser;
+	private final List<ICompilationUnit> units;
+	private MetaModelHolder holder;
+
+	public SharedPackagesLayer(CompilationUnitsParser unitsParser, List<ICompilationUnit> units)
+	{
+		this.unitsParser = unitsParser;
+		this.units = units;
+	}
+
+	public List<ICompilationUnit> getUnits()
+	{
+		return units;
+	}
+
+	/**
+	 * Returns a new holder with copies of the shared types, overlaid with the given types.
+	 * The shared packages are parsed when this is first called.
+	 */
+	public MetaModelHolder overlay(MetaModelHolder types)
+	{
+		if (holder == null)
+		{
+			LogUtil.logger().fine("Parsing the " + units.size() + " compilation units of the shared packages.");
+			JavadocExtractor extractor = new JavadocExtractor();
+			unitsParser.parseUnits(units, extractor);
+			holder = extractor.getRawDataHolder();
+		}
+		MetaModelHolder result = holder.copy();
+		result.addAll(types);
+		return result;
+	}
+}
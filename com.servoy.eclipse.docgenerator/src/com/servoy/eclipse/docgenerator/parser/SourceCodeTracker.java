@@ -17,7 +17,8 @@
 
 package com.servoy.eclipse.docgenerator.parser;
 
-import java.util.ArrayList;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 
 /**
  * @author gerzse
@@ -25,61 +26,63 @@ import java.util.ArrayList;
  * The AST does not track whitespace for Javadocs, but it does track the starting
  * position of each token. We rebuild the whitespace manually by analyzing the 
  * source code in the compilation unit. 
+ *
+ * The source code is kept only once, together with the start positions of its lines.
+ * Only complete lines (ending with a line terminator) are tracked.
  */
 public class SourceCodeTracker
 {
-	private final ArrayList<SourceCodeTrackerLine> lines = new ArrayList<SourceCodeTrackerLine>();
+	private final String code;
+
+	/**
+	 * The start positions of the lines, plus one extra entry with the position right after the last line terminator.
+	 */
+	private final int[] lineStarts;
+	private final int lineCount;
 
 	public SourceCodeTracker(String allCode)
 	{
-		StringBuffer buffer = new StringBuffer();
-		int currentLineIndex = 0;
-		int currentLineStartPosition = 0;
+		code = allCode;
+		int[] starts = new int[16];
+		int count = 0;
 		for (int i = 0; i < allCode.length(); i++)
 		{
 			char c = allCode.charAt(i);
-			buffer.append(c);
 			if (c == '\r' || c == '\n')
 			{
 				// check for '\r\n' combination
-				if ((c == '\r') && (i + 1 < allCode.length()))
-				{
-					char next = allCode.charAt(i + 1);
-					if (next == '\n')
-					{
-						buffer.append(next);
-						// skip a char
-						i++;
-					}
-				}
-
-				// flush the line
-				if (buffer.length() > 0)
+				if ((c == '\r') && (i + 1 < allCode.length()) && allCode.charAt(i + 1) == '\n')
 				{
-					SourceCodeTrackerLine lineTracker = new SourceCodeTrackerLine(buffer.toString(), currentLineStartPosition, currentLineIndex);
-					lines.add(lineTracker);
+					// skip a char
+					i++;
 				}
-				buffer.delete(0, buffer.length());
-				currentLineStartPosition = i + 1;
-				currentLineIndex++;
+				if (count + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+				count++;
+				starts[count] = i + 1;
 			}
 		}
+		lineStarts = starts;
+		lineCount = count;
 	}
 
+	/**
+	 * Returns the source code between the two positions (both inclusive), or null if any of the positions is outside the tracked lines.
+	 */
 	public String getTextBetween(int startIndex, int endIndex)
 	{
-		int startLine = findLineIndex(startIndex);
-		int endLine = findLineIndex(endIndex);
-		if (startLine != -1 && endLine != -1)
+		CharSequence text = getCharsBetween(startIndex, endIndex);
+		return text != null ? text.toString() : null;
+	}
+
+	/**
+	 * Same as {@link #getTextBetween(int, int)}, but returns a view over the source code, without copying it.
+	 */
+	public CharSequence getCharsBetween(int startIndex, int endIndex)
+	{
+		if (findLineIndex(startIndex) != -1 && findLineIndex(endIndex) != -1)
 		{
-			StringBuffer sb = new StringBuffer();
-			for (int i = startLine; i <= endLine; i++)
-			{
-				SourceCodeTrackerLine line = lines.get(i);
-				String lineText = line.getTextBetween(startIndex, endIndex);
-				sb.append(lineText);
-			}
-			return sb.toString();
+			if (startIndex > endIndex) return "";
+			return CharBuffer.wrap(code, startIndex, endIndex + 1);
 		}
 		else
 		{
@@ -89,39 +92,20 @@ public class SourceCodeTracker
 
 	private int findLineIndex(int positionIndex)
 	{
+		if (positionIndex < 0 || lineCount == 0 || positionIndex >= lineStarts[lineCount]) return -1;
 		// binary search to find the line which contains the given position
-		int left = 0;
-		int right = lines.size() - 1;
-		while (left <= right)
-		{
-			int mid = (left + right) / 2;
-			SourceCodeTrackerLine line = lines.get(mid);
-			if (line.containsPosition(positionIndex))
-			{
-				return mid;
-			}
-			else
-			{
-				if (line.getPositionIndex() > positionIndex)
-				{
-					right = mid - 1;
-				}
-				else
-				{
-					left = mid + 1;
-				}
-			}
-		}
-		return -1;
+		int idx = Arrays.binarySearch(lineStarts, 0, lineCount, positionIndex);
+		return idx >= 0 ? idx : -idx - 2;
 	}
 
 	@Override
 	public String toString()
 	{
 		StringBuffer sb = new StringBuffer();
-		for (SourceCodeTrackerLine line : lines)
+		for (int i = 0; i < lineCount; i++)
 		{
-			sb.append(line.toString());
+			sb.append(lineStarts[i]).append(", ").append(lineStarts[i + 1] - 1).append(", ").append(i).append(": ->").append(
+				code.substring(lineStarts[i], lineStarts[i + 1]).replaceAll("[\\r\\n]*$", "")).append("<-");
 			sb.append("\n");
 		}
 		return sb.toString();
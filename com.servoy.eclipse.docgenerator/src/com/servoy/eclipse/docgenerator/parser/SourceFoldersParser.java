@@ -0,0 +1,319 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
+
+import com.servoy.eclipse.docgenerator.metamodel.AnnotationPool;
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.metamodel.TypeNamePool;
+import com.servoy.eclipse.docgenerator.service.DocumentationGenerationRequest;
+import com.servoy.eclipse.docgenerator.service.LogUtil;
+
+/**
+ * Parses Java source files straight from a set of source folders, against a plain classpath, without
+ * any Eclipse project or workspace. The name environment is set up with {@link ASTParser#setEnvironment}
+ * and all files are handed in one batch to {@link ASTParser#createASTs}. The progress is reported
+ * as the files get parsed, the same way as {@link CompilationUnitsParser} does.
+ */
+public class SourceFoldersParser
+{
+	private final ASTParser parser;
+	private final DocumentationGenerationRequest req;
+	private final String[] sourceFolders;
+	private final String[] classpath;
+	private boolean lightweightJavadocs;
+	private String sourceLevel = JavaCore.VERSION_21;
+	private Charset encoding = StandardCharsets.UTF_8;
+	private TypeNamePool typeNamePool;
+	private AnnotationPool annotationPool;
+
+	private int startPercent;
+	private int endPercent;
+	private int reserve;
+	private int total;
+	private int visited;
+	private int lastPercent;
+
+	public SourceFoldersParser(ASTParser parser, DocumentationGenerationRequest req, List<String> sourceFolders, List<String> classpath)
+	{
+		this.parser = parser;
+		this.req = req;
+		this.sourceFolders = sourceFolders.toArray(new String[sourceFolders.size()]);
+		this.classpath = classpath.toArray(new String[classpath.size()]);
+	}
+
+	/**
+	 * Sets up progress reporting. The progress goes from startPercent to endPercent - reserve, as the
+	 * total number of source files gets parsed.
+	 */
+	public void setProgressRange(int startPercent, int endPercent, int reserve, int total)
+	{
+		this.startPercent = startPercent;
+		this.endPercent = endPercent;
+		this.reserve = reserve;
+		this.total = total;
+		this.visited = 0;
+		this.lastPercent = startPercent;
+	}
+
+	/**
+	 * When set, the source files are parsed without doc comment support and the extractors tokenize
+	 * only the Javadocs that may be documented.
+	 */
+	public void setLightweightJavadocs(boolean lightweightJavadocs)
+	{
+		this.lightweightJavadocs = lightweightJavadocs;
+	}
+
+	/**
+	 * Sets the Java version (for example "21") whose source and compliance level the files are parsed with. The files
+	 * are not part of a project with its own settings, so without it the defaults of JDT would be used. Java 21 if not set.
+	 */
+	public void setSourceLevel(String sourceLevel)
+	{
+		this.sourceLevel = sourceLevel;
+	}
+
+	/**
+	 * Sets the encoding of the source files. UTF-8 if not set.
+	 */
+	public void setEncoding(Charset encoding)
+	{
+		this.encoding = encoding;
+	}
+
+	/**
+	 * When set, all extractors share the given pool of type names.
+	 */
+	public void setTypeNamePool(TypeNamePool typeNamePool)
+	{
+		this.typeNamePool = typeNamePool;
+	}
+
+	/**
+	 * When set, all extractors share the given pool of annotations.
+	 */
+	public void setAnnotationPool(AnnotationPool annotationPool)
+	{
+		this.annotationPool = annotationPool;
+	}
+
+	/**
+	 * Collects the Java source files of all source folders, grouped by package. The packages are sorted by name,
+	 * so a package always comes before its subpackages.
+	 */
+	public Map<String, List<File>> collectSourceFiles()
+	{
+		Map<String, List<File>> filesByPackage = new TreeMap<String, List<File>>();
+		for (String folder : sourceFolders)
+		{
+			LogUtil.logger().fine("Collecting source files from folder '" + folder + "'.");
+			collectSourceFiles(new File(folder), null, filesByPackage);
+		}
+		return filesByPackage;
+	}
+
+	/**
+	 * Returns the source folder, as given to the constructor, that contains the given file, or null if none does.
+	 * When source folders are nested, the innermost one is returned.
+	 */
+	public String getSourceFolder(File file)
+	{
+		Path filePath = file.getAbsoluteFile().toPath().normalize();
+		String result = null;
+		int resultLength = -1;
+		for (String folder : sourceFolders)
+		{
+			Path folderPath = new File(folder).getAbsoluteFile().toPath().normalize();
+			if (filePath.startsWith(folderPath) && folderPath.getNameCount() > resultLength)
+			{
+				result = folder;
+				resultLength = folderPath.getNameCount();
+			}
+		}
+		return result;
+	}
+
+	private void collectSourceFiles(File folder, String packageName, Map<String, List<File>> filesByPackage)
+	{
+		File[] children = folder.listFiles();
+		if (children == null) return;
+		Arrays.sort(children);
+		for (File child : children)
+		{
+			if (child.isDirectory())
+			{
+				collectSourceFiles(child, packageName != null ? packageName + "." + child.getName() : child.getName(), filesByPackage);
+			}
+			else if (packageName != null && child.getName().endsWith(".java"))
+			{
+				List<File> files = filesByPackage.get(packageName);
+				if (files == null)
+				{
+					files = new ArrayList<File>();
+					filesByPackage.put(packageName, files);
+				}
+				files.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Parses the given source files and sends them to the extractor.
+	 */
+	public void parseFiles(List<File> files, final JavadocExtractor extractor)
+	{
+		parseFiles(files, new Function<String, JavadocExtractor>()
+		{
+			public JavadocExtractor apply(String sourceFilePath)
+			{
+				return extractor;
+			}
+		});
+	}
+
+	/**
+	 * Parses the given source files, each of them with a separate extractor, and returns the types extracted from each file,
+	 * keyed by the absolute path of the file.
+	 */
+	public Map<String, MetaModelHolder> extractFiles(List<File> files)
+	{
+		final Map<String, MetaModelHolder> extracted = new LinkedHashMap<String, MetaModelHolder>();
+		parseFiles(files, new Function<String, JavadocExtractor>()
+		{
+			public JavadocExtractor apply(String sourceFilePath)
+			{
+				JavadocExtractor fileExtractor = new JavadocExtractor();
+				extracted.put(sourceFilePath, fileExtractor.getRawDataHolder());
+				return fileExtractor;
+			}
+		});
+		// files that were not parsed (for example after a cancel) have no types
+		for (File f : files)
+		{
+			if (!extracted.containsKey(f.getAbsolutePath())) extracted.put(f.getAbsolutePath(), new MetaModelHolder());
+		}
+		return extracted;
+	}
+
+	private void parseFiles(List<File> files, final Function<String, JavadocExtractor> extractors)
+	{
+		if (files.isEmpty()) return;
+
+		String[] paths = new String[files.size()];
+		String[] encodings = new String[files.size()];
+		for (int i = 0; i < paths.length; i++)
+		{
+			paths[i] = files.get(i).getAbsolutePath();
+			encodings[i] = encoding.name();
+		}
+		String[] folderEncodings = new String[sourceFolders.length];
+		Arrays.fill(folderEncodings, encoding.name());
+
+		LogUtil.logger().fine("Parsing " + paths.length + " source files in one batch.");
+
+		// We must reconfigure the parser each time, because createASTs clears all settings.
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(sourceLevel, options);
+		if (lightweightJavadocs) options.put(JavaCore.COMPILER_DOC_COMMENT_SUPPORT, JavaCore.DISABLED);
+		parser.setCompilerOptions(options);
+		parser.setEnvironment(classpath, sourceFolders, folderEncodings, true);
+		parser.setResolveBindings(true);
+		parser.setBindingsRecovery(true);
+		parser.setIgnoreMethodBodies(true);
+
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		try
+		{
+			parser.createASTs(paths, encodings, new String[0], new FileASTRequestor()
+			{
+				@Override
+				public void acceptAST(String sourceFilePath, CompilationUnit ast)
+				{
+					if (req.cancelRequested())
+					{
+						monitor.setCanceled(true);
+						return;
+					}
+					String allCode = getSource(sourceFilePath);
+					JavadocExtractor extractor = extractors.apply(sourceFilePath);
+					extractor.setSourceCodeTracker(allCode != null ? new SourceCodeTracker(allCode) : null);
+					extractor.setLightweightJavadocs(lightweightJavadocs);
+					if (typeNamePool != null) extractor.setTypeNamePool(typeNamePool);
+					if (annotationPool != null) extractor.setAnnotationPool(annotationPool);
+					ast.accept(extractor);
+					fileVisited();
+				}
+			}, monitor);
+		}
+		catch (OperationCanceledException e)
+		{
+			LogUtil.logger().fine("Parsing of the source files was canceled.");
+		}
+	}
+
+	/**
+	 * Report progress. Make sure we don't output the same percentage more than once.
+	 */
+	private void fileVisited()
+	{
+		visited += 1;
+		if (total <= 0) return;
+		int newPercent = startPercent + (endPercent - startPercent - reserve) * visited / total;
+		if (newPercent > lastPercent)
+		{
+			lastPercent = newPercent;
+			req.progressUpdate(newPercent);
+		}
+	}
+
+	private String getSource(String sourceFilePath)
+	{
+		try
+		{
+			return new String(Files.readAllBytes(new File(sourceFilePath).toPath()), encoding);
+		}
+		catch (IOException e)
+		{
+			LogUtil.logger().log(Level.WARNING, "Cannot read the source of '" + sourceFilePath + "'.", e);
+		}
+		return null;
+	}
+}
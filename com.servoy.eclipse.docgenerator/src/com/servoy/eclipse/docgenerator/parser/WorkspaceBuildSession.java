@@ -0,0 +1,255 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTParser;
+
+import com.servoy.eclipse.docgenerator.Activator;
+import com.servoy.eclipse.docgenerator.metamodel.AnnotationPool;
+import com.servoy.eclipse.docgenerator.metamodel.MetaModelHolder;
+import com.servoy.eclipse.docgenerator.metamodel.TypeMetaModel;
+import com.servoy.eclipse.docgenerator.metamodel.TypeNamePool;
+import com.servoy.eclipse.docgenerator.service.DocumentationGenerationRequest;
+import com.servoy.eclipse.docgenerator.service.LogUtil;
+
+/**
+ * The state shared by all the steps of one documentation build from the workspace: the snapshot of the workspace
+ * projects and packages, the type name and annotation pools, the extraction cache and the types extracted while
+ * looking for Servoy plugins. Between {@link #open()} and {@link #close()} all the compilation units parsers handed
+ * out by this session use that state. Outside of them the parsers work the same as standalone ones.
+ */
+public class WorkspaceBuildSession
+{
+	private final ASTParser parser;
+	private final DocumentationGenerationRequest req;
+
+	private final Map<ICompilationUnit, MetaModelHolder> preExtractedUnits = new HashMap<ICompilationUnit, MetaModelHolder>(); // extracted while looking for plugins
+	private WorkspacePackageIndex packageIndex;
+	private TypeNamePool typeNamePool;
+	private AnnotationPool annotationPool;
+	private ExtractionCache extractionCache; // null if the request does not use it
+
+	public WorkspaceBuildSession(ASTParser parser, DocumentationGenerationRequest req)
+	{
+		this.parser = parser;
+		this.req = req;
+	}
+
+	/**
+	 * Takes the snapshot of the workspace and sets up the pools and, if the request uses it, the extraction cache.
+	 */
+	public void open()
+	{
+		typeNamePool = new TypeNamePool();
+		annotationPool = new AnnotationPool();
+		packageIndex = new WorkspacePackageIndex(ResourcesPlugin.getWorkspace().getRoot());
+		if (req.useExtractionCache())
+		{
+			// Only the settings that change the extracted types matter, the generators always run on the whole holder.
+			extractionCache = new ExtractionCache(Activator.getDefault().getStateLocation().append("extraction-cache").toFile(),
+				req.useLightweightJavadocs() + ";" + Activator.getDefault().getBundle().getVersion());
+		}
+	}
+
+	/**
+	 * Drops everything that was set up by {@link #open()} and the types extracted in the meantime.
+	 */
+	public void close()
+	{
+		preExtractedUnits.clear();
+		packageIndex = null;
+		extractionCache = null;
+		typeNamePool = null;
+		annotationPool = null;
+	}
+
+	/**
+	 * The snapshot of the workspace, or null if the session is not open.
+	 */
+	public WorkspacePackageIndex getPackageIndex()
+	{
+		return packageIndex;
+	}
+
+	/**
+	 * Returns a parser for documenting packages, which reuses the types extracted while looking for plugins.
+	 */
+	public CompilationUnitsParser newUnitsParser()
+	{
+		CompilationUnitsParser unitsParser = createUnitsParser();
+		unitsParser.setParallelism(req.getParallelism());
+		unitsParser.setPreExtractedUnits(preExtractedUnits);
+		return unitsParser;
+	}
+
+	private CompilationUnitsParser createUnitsParser()
+	{
+		CompilationUnitsParser unitsParser = new CompilationUnitsParser(parser, req);
+		unitsParser.setPackageIndex(packageIndex);
+		unitsParser.setLightweightJavadocs(req.useLightweightJavadocs());
+		unitsParser.setTypeNamePool(typeNamePool);
+		unitsParser.setAnnotationPool(annotationPool);
+		unitsParser.setExtractionCache(extractionCache);
+		return unitsParser;
+	}
+
+	/**
+	 * Finds the packages of the given project that contain a Servoy plugin with a query against the search index.
+	 * Returns null if the index cannot be queried, then the packages must be checked with {@link #detectPlugin(IPackageFragment)}.
+	 */
+	public Set<String> findPluginPackages(IProject prj)
+	{
+		try
+		{
+			return ServoyPluginDetector.findPluginPackages(JavaCore.create(prj), new NullProgressMonitor());
+		}
+		catch (CoreException e)
+		{
+			LogUtil.logger().log(Level.WARNING, "Cannot search for Servoy plugins in project '" + prj.getName() + "', the packages will be parsed instead.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the compilation units of the given package and checks if any of the extracted types is a Servoy plugin.
+	 * The extracted types are kept, so that the package is not parsed again when it gets documented.
+	 * This is only used when the Java search index cannot be queried.
+	 */
+	public boolean detectPlugin(IPackageFragment pkg) throws JavaModelException
+	{
+		CompilationUnitsParser unitsParser = createUnitsParser();
+		Map<ICompilationUnit, MetaModelHolder> extracted = unitsParser.extractUnits(unitsParser.collectUnits(Collections.singletonList(pkg)));
+		preExtractedUnits.putAll(extracted);
+		for (MetaModelHolder unitTypes : extracted.values())
+		{
+			for (TypeMetaModel typeMM : unitTypes.getTypes())
+			{
+				if (ServoyPluginDetector.isServoyPlugin(typeMM)) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the types extracted while looking for plugins from all the packages that are not among the given ones or their subpackages.
+	 */
+	public void retainPreExtracted(Collection<String> usedPackageNames)
+	{
+		PackagePrefixTrie usedPackages = new PackagePrefixTrie(usedPackageNames);
+		preExtractedUnits.keySet().removeIf(unit -> !usedPackages.matches(unit.getParent().getElementName()));
+	}
+
+	/**
+	 * Creates the layer of the packages that are needed when documenting each plugin. The project and package names
+	 * are given pairwise. Returns null if there are no such packages.
+	 */
+	public SharedPackagesLayer createSharedLayer(List<String> projectNames, List<String> packageNames) throws CoreException
+	{
+		if (projectNames.size() == 0) return null;
+		Map<String, List<String>> sharedPackages = new HashMap<String, List<String>>();
+		for (int x = 0; x < projectNames.size(); x++)
+		{
+			List<String> packages4project = sharedPackages.get(projectNames.get(x));
+			if (packages4project == null)
+			{
+				packages4project = new ArrayList<String>();
+				sharedPackages.put(projectNames.get(x), packages4project);
+			}
+			packages4project.add(packageNames.get(x));
+		}
+		CompilationUnitsParser sharedParser = newUnitsParser();
+		return new SharedPackagesLayer(sharedParser, sharedParser.collectUnits(selectPackages(sharedPackages)));
+	}
+
+	/**
+	 * Selects the source packages from the given projects that are listed, or are subpackages of listed packages.
+	 */
+	public List<IPackageFragment> selectPackages(Map<String, List<String>> packagesByProject) throws CoreException
+	{
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		LogUtil.logger().fine("Workspace root is '" + root.getLocation().toPortableString() + "'.");
+		// Packages may also be selected outside of a build, then there is no shared snapshot of the workspace.
+		WorkspacePackageIndex index = packageIndex != null ? packageIndex : new WorkspacePackageIndex(root);
+		IProject[] projects = index.getProjects();
+		LogUtil.logger().fine("There are " + projects.length + " projects in the workspace.");
+		LogUtil.logger().fine("Counting the total number of compilation units.");
+		List<IPackageFragment> selectedPackages = new ArrayList<IPackageFragment>();
+		for (int i = 0; i < projects.length && !req.cancelRequested(); i++)
+		{
+			IProject prj = projects[i];
+			if (index.isJavaProject(prj.getName()))
+			{
+				if (packagesByProject.containsKey(prj.getName()))
+				{
+					PackagePrefixTrie prefixes = new PackagePrefixTrie(packagesByProject.get(prj.getName()));
+					int prjFiles = 0;
+					List<IPackageFragment> fragments = index.getSourcePackages(prj.getName());
+					for (int j = 0; j < fragments.size() && !req.cancelRequested(); j++)
+					{
+						IPackageFragment pkg = fragments.get(j);
+						String thisPackageName = pkg.getElementName();
+						// Check if the package is listed, or if it is a subpackage of a listed package.
+						String usedPrefix = prefixes.getMatchingPrefix(thisPackageName);
+						if (usedPrefix != null)
+						{
+							// Select this package for later processing.
+							int pkgFiles = index.getCompilationUnits(pkg).length;
+							selectedPackages.add(pkg);
+							prjFiles += pkgFiles;
+							LogUtil.logger().fine("Package '" + pkg.getElementName() + "' in project '" + prj.getName() + "' will be documented with " +
+								pkgFiles + " compilation units. The prefix used was '" + usedPrefix + "'.");
+						}
+						else
+						{
+							LogUtil.logger().fine("Skipping package '" + pkg.getElementName() + "' in project '" + prj.getName() +
+								"' because it was not listed among the packages to document.");
+						}
+					}
+					LogUtil.logger().fine("Project '" + prj.getName() + "' will be documented with " + prjFiles + " compilation units.");
+				}
+				else
+				{
+					LogUtil.logger().fine("Skipping project '" + prj.getName() + "' because it is not listed among the projects to document.");
+				}
+			}
+			else
+			{
+				LogUtil.logger().fine("Skipping roject '" + prj.getName() + "' because it is not a Java project.");
+			}
+		}
+		return selectedPackages;
+	}
+}
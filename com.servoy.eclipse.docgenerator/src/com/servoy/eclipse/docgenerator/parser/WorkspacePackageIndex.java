@@ -0,0 +1,131 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2026 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.docgenerator.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import com.servoy.eclipse.docgenerator.service.LogUtil;
+
+/**
+ * Snapshot of the Java projects in the workspace, with their source packages and the compilation units of
+ * these packages. It is taken once per documentation build and shared by all the places that need to enumerate
+ * projects, packages or compilation units, instead of asking the Java model again each time. The packages of a
+ * project are read only when they are needed for the first time.
+ */
+public class WorkspacePackageIndex
+{
+	private final IWorkspaceRoot root;
+	private final IProject[] projects;
+	private final Map<String, List<IPackageFragment>> sourcePackages = new HashMap<String, List<IPackageFragment>>(); // null for non Java projects
+	private final Map<IPackageFragment, ICompilationUnit[]> compilationUnits = new HashMap<IPackageFragment, ICompilationUnit[]>();
+
+	public WorkspacePackageIndex(IWorkspaceRoot root)
+	{
+		this.root = root;
+		projects = root.getProjects();
+	}
+
+	/**
+	 * All projects of the workspace, in the same order as {@link IWorkspaceRoot#getProjects()}.
+	 */
+	public IProject[] getProjects()
+	{
+		return projects;
+	}
+
+	/**
+	 * Checks if the project with the given name is an open Java project.
+	 */
+	public boolean isJavaProject(String projectName) throws JavaModelException
+	{
+		return loadSourcePackages(projectName) != null;
+	}
+
+	/**
+	 * The source packages of the given Java project, in the order given by the Java model, or an empty list
+	 * if the project is not an open Java project.
+	 */
+	public List<IPackageFragment> getSourcePackages(String projectName) throws JavaModelException
+	{
+		List<IPackageFragment> packages = loadSourcePackages(projectName);
+		return packages != null ? packages : Collections.<IPackageFragment> emptyList();
+	}
+
+	private synchronized List<IPackageFragment> loadSourcePackages(String projectName) throws JavaModelException
+	{
+		if (sourcePackages.containsKey(projectName)) return sourcePackages.get(projectName);
+
+		List<IPackageFragment> packages = null;
+		IProject prj = root.getProject(projectName);
+		if (isOpenJavaProject(prj))
+		{
+			packages = new ArrayList<IPackageFragment>();
+			for (IPackageFragment pkg : JavaCore.create(prj).getPackageFragments())
+			{
+				if (pkg.getKind() == IPackageFragmentRoot.K_SOURCE)
+				{
+					packages.add(pkg);
+				}
+			}
+			LogUtil.logger().fine("Indexed " + packages.size() + " source packages of project '" + projectName + "'.");
+		}
+		sourcePackages.put(projectName, packages);
+		return packages;
+	}
+
+	private static boolean isOpenJavaProject(IProject prj)
+	{
+		try
+		{
+			return prj.isOpen() && prj.isNatureEnabled(JavaCore.NATURE_ID);
+		}
+		catch (CoreException e)
+		{
+			LogUtil.logger().log(Level.WARNING, "Cannot check the nature of project '" + prj.getName() + "'.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * The compilation units of the given package. They are read from the Java model only the first time.
+	 */
+	public synchronized ICompilationUnit[] getCompilationUnits(IPackageFragment pkg) throws JavaModelException
+	{
+		ICompilationUnit[] units = compilationUnits.get(pkg);
+		if (units == null)
+		{
+			units = pkg.getCompilationUnits();
+			compilationUnits.put(pkg, units);
+		}
+		return units;
+	}
+}
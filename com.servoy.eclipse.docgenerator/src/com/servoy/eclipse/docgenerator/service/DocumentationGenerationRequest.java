@@ -136,4 +136,38 @@ public interface DocumentationGenerationRequest
 	 * @return
 	 */
 	boolean importProjects();
+
+	/**
+	 * The number of worker threads that parse the compilation units in parallel.
+	 * Each worker has its own parser and extractor and the results are merged at the end,
+	 * in the same order in which the compilation units would have been parsed sequentially.
+	 * A value of 1 (the default) means that everything is parsed on the calling thread.
+	 * {@link #progressUpdate(int)} is still called only from the calling thread, but {@link #cancelRequested()}
+	 * is also called from the worker threads.
+	 */
+	default int getParallelism()
+	{
+		return 1;
+	}
+
+	/**
+	 * If this method returns true, then the types extracted from each compilation unit are kept between runs.
+	 * A compilation unit is not parsed again when neither it nor any of the compilation units that declare
+	 * the types it refers to changed since the previous run. The documentation XMLs are always generated.
+	 */
+	default boolean useExtractionCache()
+	{
+		return false;
+	}
+
+	/**
+	 * If this method returns true, then the compilation units are parsed without the JDT doc comment DOM.
+	 * Only the Javadocs of the types that may be documented (annotated with @ServoyDocumented or declaring
+	 * scripting members) and of their members are read, straight from the source. References in these
+	 * Javadocs are kept as written, they are not resolved.
+	 */
+	default boolean useLightweightJavadocs()
+	{
+		return false;
+	}
 }